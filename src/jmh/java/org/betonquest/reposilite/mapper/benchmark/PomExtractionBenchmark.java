@@ -0,0 +1,126 @@
+package org.betonquest.reposilite.mapper.benchmark;
+
+import org.betonquest.reposilite.mapper.integration.ArtifactXPaths;
+import org.betonquest.reposilite.mapper.integration.StreamingPomReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reading the configured values of a single pom, as done for every pom during cache generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PomExtractionBenchmark {
+
+    /**
+     * The pom to read.
+     */
+    private byte[] pom;
+
+    /**
+     * The xPath to compile the expressions with.
+     */
+    private XPath xPath;
+
+    /**
+     * The compiled expressions of the synthetic artifact.
+     */
+    private ArtifactXPaths xPaths;
+
+    /**
+     * The builder to parse the pom with.
+     */
+    private DocumentBuilder documentBuilder;
+
+    /**
+     * The reader to stream the pom with.
+     */
+    private StreamingPomReader streamingPomReader;
+
+    /**
+     * Creates the pom and all readers.
+     *
+     * @throws ParserConfigurationException if no document builder can be created
+     */
+    @Setup
+    public void setup() throws ParserConfigurationException {
+        pom = SyntheticArtifact.pom("2.0.0");
+        xPath = XPathFactory.newInstance().newXPath();
+        xPaths = ArtifactXPaths.compile(SyntheticArtifact.ARTIFACT, xPath);
+        documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        streamingPomReader = new StreamingPomReader();
+    }
+
+    /**
+     * Compiles the xPaths of the artifact, as done whenever the settings change.
+     *
+     * @return the compiled xPaths
+     */
+    @Benchmark
+    public ArtifactXPaths compileXPaths() {
+        return ArtifactXPaths.compile(SyntheticArtifact.ARTIFACT, xPath);
+    }
+
+    /**
+     * Parses the whole pom to a DOM.
+     *
+     * @return the parsed pom
+     * @throws IOException  if the pom cannot be read
+     * @throws SAXException if the pom is malformed
+     */
+    @Benchmark
+    public Document parseDocument() throws IOException, SAXException {
+        return documentBuilder.parse(new ByteArrayInputStream(pom));
+    }
+
+    /**
+     * Parses the pom to a DOM and evaluates all xPaths on it.
+     *
+     * @return the extracted values
+     * @throws IOException              if the pom cannot be read
+     * @throws SAXException             if the pom is malformed
+     * @throws XPathExpressionException if an xPath cannot be evaluated
+     */
+    @Benchmark
+    public Map<String, String> extractDocument() throws IOException, SAXException, XPathExpressionException {
+        return xPaths.evaluate(documentBuilder.parse(new ByteArrayInputStream(pom)));
+    }
+
+    /**
+     * Streams the pom and extracts all xPaths as simple element paths.
+     *
+     * @return the extracted values
+     * @throws XMLStreamException if the pom is malformed
+     */
+    @Benchmark
+    public Map<String, String> extractStreaming() throws XMLStreamException {
+        return xPaths.extract(streamingPomReader, new ByteArrayInputStream(pom));
+    }
+}
@@ -0,0 +1,148 @@
+package org.betonquest.reposilite.mapper.benchmark;
+
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.mapper.integration.EntryInterner;
+import org.betonquest.reposilite.mapper.integration.PomVersionedEntry;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.betonquest.reposilite.mapper.settings.XPathEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates reproducible synthetic artifacts with realistic poms for the benchmarks.
+ * All data is derived from a fixed seed, so every run benchmarks the same input.
+ */
+public final class SyntheticArtifact {
+
+    /**
+     * The seed all synthetic data is derived from.
+     */
+    public static final long SEED = 0x506F6D4D61707065L;
+
+    /**
+     * The share of versions that are timestamped snapshot builds.
+     */
+    private static final double SNAPSHOT_SHARE = 0.7;
+
+    /**
+     * The maximum number of timestamped builds per snapshot version.
+     */
+    private static final int MAX_SNAPSHOT_BUILDS = 25;
+
+    /**
+     * The artifact all synthetic entries belong to.
+     */
+    public static final Artifact ARTIFACT = new Artifact("Benchmark", "releases", "org.betonquest", "betonquest", List.of(
+            new XPathEntry("paper", "/project/properties/version.paper"),
+            new XPathEntry("java", "/project/properties/maven.compiler.release"),
+            new XPathEntry("reposilite", "/project/properties/version.reposilite")
+    ), 0);
+
+    /**
+     * The interner all synthetic entries share their parts with, like the entries of a single cache generation.
+     */
+    private static final EntryInterner INTERNER = new EntryInterner();
+
+    private SyntheticArtifact() {
+    }
+
+    /**
+     * Generates the given number of entries spread over release and snapshot versions.
+     *
+     * @param versions the number of entries to generate
+     * @return the generated entries in repository order
+     */
+    public static List<PomVersionedEntry> entries(final int versions) {
+        final Random random = new Random(SEED);
+        final List<PomVersionedEntry> entries = new ArrayList<>(versions);
+        int major = 1;
+        int minor = 0;
+        int patch = 0;
+        while (entries.size() < versions) {
+            final String release = major + "." + minor + "." + patch;
+            if (random.nextDouble() < SNAPSHOT_SHARE) {
+                final String group = release + "-SNAPSHOT";
+                final int builds = Math.min(versions - entries.size(), 1 + random.nextInt(MAX_SNAPSHOT_BUILDS));
+                for (int build = 1; build <= builds; build++) {
+                    final String maven = release + "-2024" + String.format("%02d%02d.%06d", 1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(235_959)) + "-" + build;
+                    entries.add(entry(group, maven, random));
+                }
+            } else {
+                entries.add(entry(release, release, random));
+            }
+            if (random.nextInt(10) == 0) {
+                major++;
+                minor = 0;
+                patch = 0;
+            } else if (random.nextInt(4) == 0) {
+                minor++;
+                patch = 0;
+            } else {
+                patch++;
+            }
+        }
+        return entries;
+    }
+
+    private static PomVersionedEntry entry(final String group, final String maven, final Random random) {
+        final Map<String, String> pom = new LinkedHashMap<>();
+        pom.put("paper", "1.2" + random.nextInt(2) + "." + random.nextInt(5) + "-R0.1-SNAPSHOT");
+        pom.put("java", String.valueOf(17 + random.nextInt(5)));
+        pom.put("reposilite", "3.5." + random.nextInt(30));
+        final Location pomLocation = ARTIFACT.gav().resolve(group).resolve(ARTIFACT.artifactId() + "-" + maven + ".pom");
+        return new PomVersionedEntry(ARTIFACT, group, maven, pom, pomLocation, "sha1:" + Long.toHexString(random.nextLong()), INTERNER);
+    }
+
+    /**
+     * Generates a realistic pom with properties, dependency management, dependencies and build plugins.
+     *
+     * @param version the version of the pom
+     * @return the UTF-8 encoded pom
+     */
+    public static byte[] pom(final String version) {
+        final Random random = new Random(SEED ^ version.hashCode());
+        final StringBuilder pom = new StringBuilder(8192)
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"")
+                .append(" xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd\">\n")
+                .append("  <modelVersion>4.0.0</modelVersion>\n")
+                .append("  <parent>\n    <groupId>org.betonquest</groupId>\n    <artifactId>parent</artifactId>\n    <version>2.4.1</version>\n  </parent>\n")
+                .append("  <groupId>").append(ARTIFACT.groupId()).append("</groupId>\n")
+                .append("  <artifactId>").append(ARTIFACT.artifactId()).append("</artifactId>\n")
+                .append("  <version>").append(version).append("</version>\n")
+                .append("  <name>BetonQuest</name>\n")
+                .append("  <description>Synthetic pom of version ").append(version).append(" used for benchmarks.</description>\n")
+                .append("  <properties>\n")
+                .append("    <maven.compiler.release>").append(17 + random.nextInt(5)).append("</maven.compiler.release>\n")
+                .append("    <project.build.sourceEncoding>UTF-8</project.build.sourceEncoding>\n")
+                .append("    <version.paper>1.2").append(random.nextInt(2)).append('.').append(random.nextInt(5)).append("-R0.1-SNAPSHOT</version.paper>\n")
+                .append("    <version.reposilite>3.5.").append(random.nextInt(30)).append("</version.reposilite>\n");
+        for (int property = 0; property < 20; property++) {
+            pom.append("    <version.library").append(property).append('>').append(random.nextInt(10)).append('.')
+                    .append(random.nextInt(20)).append('.').append(random.nextInt(50)).append("</version.library").append(property).append(">\n");
+        }
+        pom.append("  </properties>\n  <dependencies>\n");
+        for (int dependency = 0; dependency < 25; dependency++) {
+            pom.append("    <dependency>\n      <groupId>org.example.group").append(dependency).append("</groupId>\n")
+                    .append("      <artifactId>library-").append(dependency).append("</artifactId>\n")
+                    .append("      <version>${version.library").append(dependency % 20).append("}</version>\n")
+                    .append("      <scope>").append(dependency % 3 == 0 ? "provided" : "compile").append("</scope>\n")
+                    .append("      <exclusions>\n        <exclusion>\n          <groupId>*</groupId>\n          <artifactId>*</artifactId>\n")
+                    .append("        </exclusion>\n      </exclusions>\n    </dependency>\n");
+        }
+        pom.append("  </dependencies>\n  <build>\n    <plugins>\n");
+        for (int plugin = 0; plugin < 8; plugin++) {
+            pom.append("      <plugin>\n        <groupId>org.apache.maven.plugins</groupId>\n")
+                    .append("        <artifactId>maven-plugin-").append(plugin).append("</artifactId>\n")
+                    .append("        <version>3.").append(random.nextInt(10)).append(".0</version>\n")
+                    .append("        <configuration>\n          <skip>false</skip>\n        </configuration>\n      </plugin>\n");
+        }
+        pom.append("    </plugins>\n  </build>\n</project>\n");
+        return pom.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
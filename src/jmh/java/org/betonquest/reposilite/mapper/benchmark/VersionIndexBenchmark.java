@@ -0,0 +1,132 @@
+package org.betonquest.reposilite.mapper.benchmark;
+
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex;
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex.VersionGroup;
+import org.betonquest.reposilite.mapper.integration.PomVersionedEntry;
+import org.betonquest.reposilite.mapper.restful.VersionsJsonSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building the version index of an artifact and answering REST API requests from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VersionIndexBenchmark {
+
+    /**
+     * The number of versions of the synthetic artifact.
+     */
+    @Param({"10", "1000", "50000"})
+    public int versions;
+
+    /**
+     * The entries of the synthetic artifact.
+     */
+    private List<PomVersionedEntry> entries;
+
+    /**
+     * The index of all entries.
+     */
+    private ArtifactVersionIndex index;
+
+    /**
+     * The version to compare and filter with, in the middle of all versions.
+     */
+    private DefaultArtifactVersion since;
+
+    /**
+     * The result of an unfiltered request.
+     */
+    private List<VersionGroup> groups;
+
+    /**
+     * The serializer of the REST API.
+     */
+    private VersionsJsonSerializer serializer;
+
+    /**
+     * Creates the entries and the index.
+     */
+    @Setup
+    public void setup() {
+        entries = SyntheticArtifact.entries(versions);
+        index = ArtifactVersionIndex.of(entries);
+        since = entries.get(entries.size() / 2).groupVersion();
+        groups = index.query(true, true, new DefaultArtifactVersion("0.0.1"), -1);
+        serializer = new VersionsJsonSerializer();
+    }
+
+    /**
+     * Groups and sorts all entries, as done whenever an artifact is cached.
+     *
+     * @return the index
+     */
+    @Benchmark
+    public ArtifactVersionIndex buildIndex() {
+        return ArtifactVersionIndex.of(entries);
+    }
+
+    /**
+     * Compares every entry with a version, as done by the since filter before the index.
+     *
+     * @return the number of newer entries
+     */
+    @Benchmark
+    public int compareVersions() {
+        int newer = 0;
+        for (final PomVersionedEntry entry : entries) {
+            if (entry.isNewerThan(since)) {
+                newer++;
+            }
+        }
+        return newer;
+    }
+
+    /**
+     * Filters the index by snapshots, since and limit.
+     *
+     * @return the matching groups
+     */
+    @Benchmark
+    public List<VersionGroup> queryFiltered() {
+        return index.query(true, false, since, 10);
+    }
+
+    /**
+     * Returns all groups of the index.
+     *
+     * @return all groups
+     */
+    @Benchmark
+    public List<VersionGroup> queryAll() {
+        return index.query(true, true, new DefaultArtifactVersion("0.0.1"), -1);
+    }
+
+    /**
+     * Serializes all groups to the JSON response.
+     *
+     * @return the JSON response
+     */
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(groups);
+    }
+}
@@ -5,24 +5,40 @@ import com.reposilite.maven.MavenFacade;
 import com.reposilite.maven.api.DeployEvent;
 import com.reposilite.plugin.api.Facade;
 import com.reposilite.plugin.api.Plugin;
+import com.reposilite.plugin.api.ReposiliteDisposeEvent;
 import com.reposilite.plugin.api.ReposiliteInitializeEvent;
 import com.reposilite.plugin.api.ReposilitePostInitializeEvent;
 import com.reposilite.plugin.api.ReposiliteStartedEvent;
+import com.reposilite.storage.api.Location;
 import com.reposilite.web.api.ReposiliteRoute;
 import com.reposilite.web.api.RoutingSetupEvent;
 import org.betonquest.reposilite.adapter.PluginAdapter;
 import org.betonquest.reposilite.adapter.validation.ValidationLogLevel;
 import org.betonquest.reposilite.adapter.validation.ValidationResult;
 import org.betonquest.reposilite.mapper.command.UpdateCacheCommand;
+import org.betonquest.reposilite.mapper.integration.ArtifactBuildResult;
 import org.betonquest.reposilite.mapper.integration.ArtifactsVersionsCache;
+import org.betonquest.reposilite.mapper.integration.CacheSnapshot;
+import org.betonquest.reposilite.mapper.integration.CacheWorkerPool;
 import org.betonquest.reposilite.mapper.integration.PomMapperFacade;
+import org.betonquest.reposilite.mapper.integration.PomVersionedEntry;
+import org.betonquest.reposilite.mapper.integration.RebuildScheduler;
+import org.betonquest.reposilite.mapper.integration.ReconcileResult;
+import org.betonquest.reposilite.mapper.integration.StorageReconciler;
 import org.betonquest.reposilite.mapper.restful.RestfulRoutes;
 import org.betonquest.reposilite.mapper.settings.Artifact;
 import org.betonquest.reposilite.mapper.settings.PomMapperPluginSettings;
+import org.betonquest.reposilite.mapper.settings.WarmupPolicy;
 import org.jetbrains.annotations.Nullable;
 import panda.std.reactive.MutableReference;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -46,6 +62,22 @@ public class PomMapperPlugin extends PluginAdapter<PomMapperFacade, PomMapperPlu
      */
     private RestfulRoutes restfulImplementation;
 
+    /**
+     * The scheduler running cache rebuilds triggered by deploys and settings changes in the background.
+     */
+    private RebuildScheduler rebuildScheduler;
+
+    /**
+     * The reconciler picking up storage changes made without a deploy in the background.
+     */
+    private StorageReconciler storageReconciler;
+
+    /**
+     * The persisted snapshot of the cache or null if disabled.
+     */
+    @Nullable
+    private CacheSnapshot cacheSnapshot;
+
     /**
      * Default Constructor for the PomMapperPlugin.
      */
@@ -59,7 +91,8 @@ public class PomMapperPlugin extends PluginAdapter<PomMapperFacade, PomMapperPlu
     @Nullable
     public Facade onLoad() {
         extensions().registerEvent(ReposiliteInitializeEvent.class, this.baseFacade);
-        extensions().facade(ConsoleFacade.class).registerCommand(new UpdateCacheCommand(this::updateCache));
+        extensions().facade(ConsoleFacade.class).registerCommand(new UpdateCacheCommand(this::updateCache,
+                task -> rebuildScheduler.runInBackground(task), this::info));
         return baseFacade;
     }
 
@@ -68,10 +101,21 @@ public class PomMapperPlugin extends PluginAdapter<PomMapperFacade, PomMapperPlu
         info("Initializing...");
 
         this.restfulImplementation = new RestfulRoutes(getFacade(MavenFacade.class), baseFacade);
+        this.rebuildScheduler = new RebuildScheduler(() -> getConfig().get().getRebuildQuietWindow(),
+                () -> getConfig().get().getRebuildMaxDelay(), this::updateCache, this::updateArtifact);
+        this.storageReconciler = new StorageReconciler(() -> getConfig().get().getReconcileInterval(),
+                () -> getConfig().get().getReconcileStorageCallsPerSecond(), () -> getConfig().get().getArtifacts(),
+                artifactsVersionsCache, this::onReconciled, this::warn);
 
         final MutableReference<PomMapperPluginSettings> config = getConfig();
         final PomMapperPluginSettings settings = config.get();
-        config.subscribe(sets -> ValidationResult.printBlock(sets.validate(baseFacade), this::warn, this::info, ValidationLogLevel.ERRORS_ONLY));
+        baseFacade.compileXPaths(settings.getArtifacts());
+        baseFacade.indexArtifacts(settings.getArtifacts());
+        config.subscribe(sets -> {
+            baseFacade.compileXPaths(sets.getArtifacts());
+            baseFacade.indexArtifacts(sets.getArtifacts());
+            ValidationResult.printBlock(sets.validate(baseFacade), this::warn, this::info, ValidationLogLevel.ERRORS_ONLY);
+        });
 
         final List<String> artifacts = settings.getArtifacts().stream().map(Artifact::id).toList();
         info("Loaded " + artifacts.size() + " artifacts.");
@@ -80,28 +124,56 @@ public class PomMapperPlugin extends PluginAdapter<PomMapperFacade, PomMapperPlu
 
     @Override
     public void onEnable(final ReposilitePostInitializeEvent event) {
-        info("Attempting to generate cache...");
-        updateCache();
-        info("Cache generation complete.");
+        final String snapshotFile = getConfig().get().getCacheSnapshotFile();
+        if (snapshotFile != null && !snapshotFile.isBlank()) {
+            this.cacheSnapshot = new CacheSnapshot(getReposilite().getParameters().getWorkingDirectory().resolve(snapshotFile));
+        }
+        final Map<String, Map<Location, PomVersionedEntry>> known = readSnapshot();
+        final WarmupPolicy warmupPolicy = getConfig().get().getWarmupPolicy();
+        if (warmupPolicy == WarmupPolicy.STALE) {
+            artifactsVersionsCache.restore(known);
+        }
+        info("Attempting to generate cache in the background...");
+        rebuildScheduler.runInBackground(() -> {
+            try {
+                updateCache(artifact -> true, known, warmupPolicy == WarmupPolicy.PROGRESSIVE);
+                info("Cache generation complete.");
+            } catch (final RuntimeException e) {
+                warn("Cache generation failed, serving what is cached so far - " + e.getMessage());
+                getLogger().exception(e);
+            } finally {
+                artifactsVersionsCache.markWarm();
+            }
+        });
     }
 
     @Override
     public void onStart(final ReposiliteStartedEvent event) {
         final List<ValidationResult> validate = getConfig().get().validate(baseFacade);
         ValidationResult.printBlock(validate, this::warn, this::info, ValidationLogLevel.ALL);
-        getConfig().subscribe(settings -> updateCache());
+        getConfig().subscribe(settings -> rebuildScheduler.scheduleFullRebuild());
+        storageReconciler.start();
+    }
+
+    @Override
+    public void onDispose(final ReposiliteDisposeEvent event) {
+        if (rebuildScheduler != null) {
+            rebuildScheduler.shutdown();
+        }
+        if (storageReconciler != null) {
+            storageReconciler.shutdown();
+        }
+        writeSnapshot();
     }
 
     @Override
     public void onDeploy(final DeployEvent event) {
-        final Artifact artifact = baseFacade.findArtifact(event.getRepository().getName(), event.getGav());
+        final Artifact artifact = baseFacade.findArtifactForPom(event.getRepository().getName(), event.getGav());
         if (artifact == null) {
             return;
         }
-        if (artifactsVersionsCache.hasEntry(artifact.artifactId())) {
-            debug("Updating cache for artifact with id: " + artifact.artifactId());
-            updateCache();
-        }
+        debug("Scheduling cache update for artifact with id \"" + artifact.id() + "\" with pom: " + event.getGav());
+        rebuildScheduler.schedulePomUpdate(artifact, event.getGav());
     }
 
     @Override
@@ -110,17 +182,105 @@ public class PomMapperPlugin extends PluginAdapter<PomMapperFacade, PomMapperPlu
         info("Mapper routes registered: " + this.restfulImplementation.getRoutes().stream().map(ReposiliteRoute::getPath).collect(Collectors.joining(", ")));
     }
 
+    private void updateArtifact(final Artifact artifact, final Set<Location> pomLocations) {
+        debug("Updating cache for artifact with id \"" + artifact.id() + "\" with " + pomLocations.size() + " poms");
+        boolean merged = true;
+        for (final Location pomLocation : pomLocations) {
+            merged = merged && artifactsVersionsCache.attemptToCache(artifact, pomLocation);
+        }
+        if (merged) {
+            debug("  > \"" + artifact.id() + "\" cache updated. (" + artifactsVersionsCache.getVersionsCount(artifact.id()) + " versions)");
+        } else {
+            final ArtifactBuildResult result = artifactsVersionsCache.attemptToCache(artifact);
+            baseFacade.getMetrics().recordArtifactBuild(result);
+            logResult(artifact, result);
+        }
+    }
+
     private void updateCache() {
-        final List<ValidationResult> validate = getConfig().get().validate(baseFacade);
-        ValidationResult.printBlock(validate, this::warn, this::info, getConfig().get().getValidationLogLevel());
-        final List<Artifact> artifacts = getConfig().get().getArtifacts();
+        updateCache(artifact -> true, false);
+    }
+
+    private Map<Artifact, ArtifactBuildResult> updateCache(final Predicate<Artifact> selection, final boolean force) {
+        return updateCache(selection, force ? Map.of() : artifactsVersionsCache.getKnownEntries(), false);
+    }
+
+    private Map<Artifact, ArtifactBuildResult> updateCache(final Predicate<Artifact> selection,
+                                                           final Map<String, Map<Location, PomVersionedEntry>> known, final boolean progressive) {
+        final PomMapperPluginSettings settings = getConfig().get();
+        final List<ValidationResult> validate = settings.validate(baseFacade);
+        ValidationResult.printBlock(validate, this::warn, this::info, settings.getValidationLogLevel());
+        final List<Artifact> configured = settings.getArtifacts();
+        final List<Artifact> artifacts = configured.stream().filter(selection).toList();
+        if (artifacts.isEmpty()) {
+            return Map.of();
+        }
         debug("Generating cache for " + artifacts.size() + " artifacts...");
-        for (final Artifact artifact : artifacts) {
-            if (artifactsVersionsCache.attemptToCache(artifact)) {
-                debug("  > \"" + artifact.id() + "\" cache generated. (" + artifactsVersionsCache.getVersionsCount(artifact.id()) + " versions)");
-            } else {
-                warn("  > \"" + artifact.id() + "\" cache generation failed");
+        if (artifacts.size() == configured.size()) {
+            artifactsVersionsCache.renewInterner();
+        }
+        final long start = System.nanoTime();
+        final ExecutorService workers = CacheWorkerPool.create(settings.getCacheWorkerThreads(), settings.isCacheVirtualThreads());
+        final Map<Artifact, ArtifactBuildResult> results;
+        try {
+            results = artifactsVersionsCache.attemptToCache(artifacts, workers, known, progressive);
+        } finally {
+            workers.shutdownNow();
+        }
+        if (artifacts.size() == configured.size()) {
+            baseFacade.getMetrics().recordFullBuild(results.values(), System.nanoTime() - start);
+        } else {
+            results.values().forEach(baseFacade.getMetrics()::recordArtifactBuild);
+        }
+        results.forEach(this::logResult);
+        writeSnapshot();
+        return results;
+    }
+
+    private void onReconciled(final List<ReconcileResult> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        for (final ReconcileResult result : changed) {
+            debug("  > \"" + result.artifactConfigId() + "\" reconciled with storage. (" + result.added() + " poms added, "
+                    + result.removed() + " removed, " + result.storageCalls() + " storage calls)");
+        }
+        writeSnapshot();
+    }
+
+    private void logResult(final Artifact artifact, final ArtifactBuildResult result) {
+        if (result.isCached()) {
+            debug("  > \"" + artifact.id() + "\" cache generated. (" + result.versions() + " versions, " + result.parsed() + " poms read, "
+                    + result.skipped() + " unchanged, " + result.failed() + " failed, " + TimeUnit.NANOSECONDS.toMillis(result.durationNanos()) + "ms)");
+        } else {
+            warn("  > \"" + artifact.id() + "\" cache generation failed");
+        }
+    }
+
+    private Map<String, Map<Location, PomVersionedEntry>> readSnapshot() {
+        if (cacheSnapshot == null) {
+            return Map.of();
+        }
+        try {
+            final Map<String, Map<Location, PomVersionedEntry>> known = cacheSnapshot.read(getConfig().get().getArtifacts(), artifactsVersionsCache.getInterner());
+            debug("Restored cache snapshot of " + known.size() + " artifacts from " + cacheSnapshot.getFile());
+            return known;
+        } catch (final IOException e) {
+            warn("Could not read cache snapshot " + cacheSnapshot.getFile() + " - " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void writeSnapshot() {
+        if (cacheSnapshot == null) {
+            return;
+        }
+        try {
+            if (!cacheSnapshot.write(artifactsVersionsCache.getIndices())) {
+                debug("Cache snapshot unchanged, skipped writing " + cacheSnapshot.getFile());
             }
+        } catch (final IOException e) {
+            warn("Could not write cache snapshot " + cacheSnapshot.getFile() + " - " + e.getMessage());
         }
     }
 }
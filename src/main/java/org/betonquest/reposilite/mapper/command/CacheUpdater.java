@@ -0,0 +1,23 @@
+package org.betonquest.reposilite.mapper.command;
+
+import org.betonquest.reposilite.mapper.integration.ArtifactBuildResult;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Updates the cache of the configured artifacts for the {@link UpdateCacheCommand}.
+ */
+@FunctionalInterface
+public interface CacheUpdater {
+
+    /**
+     * Updates the cache of all configured artifacts matching the given selection.
+     *
+     * @param selection the selection of artifacts to update
+     * @param force     whether all poms are read again, even if their fingerprint did not change
+     * @return the result for each updated artifact in the configured order
+     */
+    Map<Artifact, ArtifactBuildResult> update(Predicate<Artifact> selection, boolean force);
+}
@@ -2,8 +2,18 @@ package org.betonquest.reposilite.mapper.command;
 
 import com.reposilite.console.CommandContext;
 import com.reposilite.console.api.ReposiliteCommand;
+import org.betonquest.reposilite.mapper.integration.ArtifactBuildResult;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.jetbrains.annotations.Nullable;
 import picocli.CommandLine;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
 /**
  * Reposilite cli command to update the cache of the PomMapperPlugin.
  */
@@ -14,21 +24,128 @@ import picocli.CommandLine;
 public class UpdateCacheCommand implements ReposiliteCommand {
 
     /**
-     * The runnable to execute to update the cache.
+     * The updater to update the cache with.
+     */
+    private final CacheUpdater cacheUpdater;
+
+    /**
+     * Runs a task on the thread of the background rebuilds, so updates never overlap them.
+     */
+    private final Consumer<Runnable> background;
+
+    /**
+     * The logger for the results of updates running in the background.
      */
-    private final Runnable updateCacheRunnable;
+    private final Consumer<String> backgroundLog;
+
+    /**
+     * The id of the only artifact to update or null for all artifacts.
+     */
+    @Nullable
+    @CommandLine.Option(names = "--artifact", paramLabel = "<id>", description = "Only update the artifact with the given id.")
+    private String artifactId;
+
+    /**
+     * The only repository to update the artifacts of or null for all repositories.
+     */
+    @Nullable
+    @CommandLine.Option(names = "--repository", paramLabel = "<repository>", description = "Only update the artifacts of the given repository.")
+    private String repository;
+
+    /**
+     * Whether the update runs in the background.
+     */
+    @CommandLine.Option(names = "--async", description = "Run the update in the background and log the results when done.")
+    private boolean async;
+
+    /**
+     * Whether all poms are read again.
+     */
+    @CommandLine.Option(names = "--force", description = "Read all poms again, even if their fingerprint did not change.")
+    private boolean force;
 
     /**
      * Constructor for the UpdateCacheCommand.
      *
-     * @param updateCacheRunnable The runnable to execute to update the cache.
+     * @param cacheUpdater  The updater to update the cache with.
+     * @param background    Runs a task on the thread of the background rebuilds, so updates never overlap them.
+     * @param backgroundLog The logger for the results of updates running in the background.
      */
-    public UpdateCacheCommand(final Runnable updateCacheRunnable) {
-        this.updateCacheRunnable = updateCacheRunnable;
+    public UpdateCacheCommand(final CacheUpdater cacheUpdater, final Consumer<Runnable> background, final Consumer<String> backgroundLog) {
+        this.cacheUpdater = cacheUpdater;
+        this.background = background;
+        this.backgroundLog = backgroundLog;
     }
 
     @Override
     public void execute(final CommandContext commandContext) {
-        this.updateCacheRunnable.run();
+        final Predicate<Artifact> selection = selection(artifactId, repository);
+        final boolean forced = force;
+        if (async) {
+            background.accept(() -> {
+                try {
+                    update(selection, forced, backgroundLog);
+                } catch (final RuntimeException e) {
+                    backgroundLog.accept("Cache update failed: " + e.getMessage());
+                }
+            });
+            commandContext.append("Cache update started in the background.");
+            return;
+        }
+        final long start = System.nanoTime();
+        final CompletableFuture<Map<Artifact, ArtifactBuildResult>> results = new CompletableFuture<>();
+        background.accept(() -> {
+            try {
+                results.complete(cacheUpdater.update(selection, forced));
+            } catch (final RuntimeException e) {
+                results.completeExceptionally(e);
+            }
+        });
+        try {
+            report(results.get(), System.nanoTime() - start, commandContext::append);
+        } catch (final ExecutionException e) {
+            commandContext.append("Cache update failed: " + e.getCause().getMessage());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            commandContext.append("Cache update interrupted while waiting for its result.");
+        }
+    }
+
+    private void update(final Predicate<Artifact> selection, final boolean forced, final Consumer<String> output) {
+        final long start = System.nanoTime();
+        final Map<Artifact, ArtifactBuildResult> results = cacheUpdater.update(selection, forced);
+        report(results, System.nanoTime() - start, output);
+    }
+
+    private static Predicate<Artifact> selection(@Nullable final String artifactId, @Nullable final String repository) {
+        return artifact -> (artifactId == null || artifactId.equals(artifact.id()))
+                && (repository == null || repository.equals(artifact.repository()));
+    }
+
+    private static void report(final Map<Artifact, ArtifactBuildResult> results, final long durationNanos, final Consumer<String> output) {
+        if (results.isEmpty()) {
+            output.accept("No artifact matches the selection.");
+            return;
+        }
+        int parsed = 0;
+        int skipped = 0;
+        int failed = 0;
+        for (final ArtifactBuildResult result : results.values()) {
+            output.accept(format(result));
+            parsed += result.parsed();
+            skipped += result.skipped();
+            failed += result.failed();
+        }
+        output.accept("Updated " + results.size() + " artifacts: " + parsed + " poms read, " + skipped + " unchanged, "
+                + failed + " failed (" + TimeUnit.NANOSECONDS.toMillis(durationNanos) + "ms)");
+    }
+
+    private static String format(final ArtifactBuildResult result) {
+        final String timing = TimeUnit.NANOSECONDS.toMillis(result.durationNanos()) + "ms";
+        if (!result.isCached()) {
+            return "  > \"" + result.artifactConfigId() + "\" cache generation failed (" + timing + ")";
+        }
+        return "  > \"" + result.artifactConfigId() + "\": " + result.versions() + " versions, " + result.parsed() + " poms read, "
+                + result.skipped() + " unchanged, " + result.failed() + " failed, " + result.storageCalls() + " storage calls (" + timing + ")";
     }
 }
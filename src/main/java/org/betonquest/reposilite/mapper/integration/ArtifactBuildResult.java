@@ -0,0 +1,47 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The result of caching a single artifact.
+ *
+ * @param artifactConfigId the artifact config id
+ * @param index            the built index or null if caching failed
+ * @param parsed           the number of poms read and parsed
+ * @param skipped          the number of unchanged poms reused without reading them
+ * @param failed           the number of poms that could not be read or parsed
+ * @param storageCalls     the number of calls to the storage of the repository
+ * @param durationNanos    the duration of caching the artifact in nanoseconds
+ */
+public record ArtifactBuildResult(String artifactConfigId, @Nullable ArtifactVersionIndex index, int parsed, int skipped,
+                                  int failed, int storageCalls, long durationNanos) {
+
+    /**
+     * Returns the result of an artifact that could not be cached at all.
+     *
+     * @param artifactConfigId the artifact config id
+     * @param durationNanos    the duration until caching failed in nanoseconds
+     * @return the result
+     */
+    public static ArtifactBuildResult failed(final String artifactConfigId, final long durationNanos) {
+        return new ArtifactBuildResult(artifactConfigId, null, 0, 0, 0, 0, durationNanos);
+    }
+
+    /**
+     * Checks if the artifact was cached.
+     *
+     * @return true if the artifact was cached, false otherwise
+     */
+    public boolean isCached() {
+        return index != null;
+    }
+
+    /**
+     * Returns the number of cached versions.
+     *
+     * @return the number of cached versions or zero if the artifact was not cached
+     */
+    public int versions() {
+        return index == null ? 0 : index.size();
+    }
+}
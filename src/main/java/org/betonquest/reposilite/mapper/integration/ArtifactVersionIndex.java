@@ -0,0 +1,478 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Immutable index of all {@link PomVersionedEntry}s of a single artifact.
+ * The entries are grouped by their group version, the groups and the entries within each group
+ * are sorted by their pre-parsed versions in descending order.
+ */
+public final class ArtifactVersionIndex {
+
+    /**
+     * The source of index generations, starting at a random value so generations are not reused across restarts.
+     */
+    private static final AtomicLong GENERATIONS = new AtomicLong(new SecureRandom().nextLong());
+
+    /**
+     * An index without any entries.
+     */
+    public static final ArtifactVersionIndex EMPTY = new ArtifactVersionIndex(List.of(), 0, EntryValueIndex.EMPTY);
+
+    /**
+     * Descending order of entries by their maven version.
+     */
+    private static final Comparator<PomVersionedEntry> ENTRY_ORDER = Comparator
+            .comparing(PomVersionedEntry::mavenVersion)
+            .thenComparing(PomVersionedEntry::maven)
+            .reversed();
+
+    /**
+     * Descending order of groups by their group version.
+     */
+    private static final Comparator<VersionGroup> GROUP_ORDER = Comparator
+            .comparing(VersionGroup::version)
+            .thenComparing(VersionGroup::group)
+            .reversed();
+
+    /**
+     * All groups sorted in descending order.
+     */
+    private final List<VersionGroup> groups;
+
+    /**
+     * The total number of entries in all groups.
+     */
+    private final int size;
+
+    /**
+     * The unique generation of this index, changes whenever the entries of the artifact change.
+     */
+    private final long generation;
+
+    /**
+     * The inverted index of the extracted values of all entries.
+     */
+    private final EntryValueIndex values;
+
+    /**
+     * The newest entry of each group as single entry group by its group version.
+     */
+    private final Map<String, VersionGroup> latestByGroup;
+
+    /**
+     * The newest release entry as single entry group or null if there are no releases.
+     */
+    @Nullable
+    private final VersionGroup latestRelease;
+
+    /**
+     * The newest snapshot entry as single entry group or null if there are no snapshots.
+     */
+    @Nullable
+    private final VersionGroup latestSnapshot;
+
+    private ArtifactVersionIndex(final List<VersionGroup> groups, final int size, final EntryValueIndex values) {
+        this.groups = groups;
+        this.size = size;
+        this.generation = GENERATIONS.incrementAndGet();
+        this.values = values;
+        final Map<String, VersionGroup> latest = new HashMap<>();
+        VersionGroup release = null;
+        VersionGroup snapshot = null;
+        for (final VersionGroup group : groups) {
+            final VersionGroup newest = group.slice(0, 1);
+            latest.put(group.group(), newest);
+            if (group.isSnapshot()) {
+                snapshot = snapshot == null ? newest : snapshot;
+            } else {
+                release = release == null ? newest : release;
+            }
+        }
+        this.latestByGroup = Map.copyOf(latest);
+        this.latestRelease = release;
+        this.latestSnapshot = snapshot;
+    }
+
+    /**
+     * Creates a new index from the given entries.
+     *
+     * @param entries the entries to index
+     * @return the new index
+     */
+    public static ArtifactVersionIndex of(final Collection<PomVersionedEntry> entries) {
+        final Map<String, List<PomVersionedEntry>> grouped = new HashMap<>();
+        for (final PomVersionedEntry entry : entries) {
+            grouped.computeIfAbsent(entry.group(), group -> new ArrayList<>()).add(entry);
+        }
+        final List<VersionGroup> groups = new ArrayList<>(grouped.size());
+        grouped.forEach((group, groupEntries) -> {
+            groupEntries.sort(ENTRY_ORDER);
+            groups.add(new VersionGroup(group, groupEntries.get(0).groupVersion(), List.copyOf(groupEntries)));
+        });
+        groups.sort(GROUP_ORDER);
+        final List<VersionGroup> sorted = List.copyOf(groups);
+        return new ArtifactVersionIndex(sorted, entries.size(), EntryValueIndex.of(sorted));
+    }
+
+    /**
+     * Returns the index of the first element in the descending sorted list that is not newer than the given version.
+     *
+     * @param sorted  the list sorted in descending order
+     * @param key     the function to extract the version of an element
+     * @param version the version to search for
+     * @param <T>     the type of the elements
+     * @return the number of elements newer than the given version
+     */
+    private static <T> int countNewerThan(final List<T> sorted, final Function<T, DefaultArtifactVersion> key,
+                                          final DefaultArtifactVersion version) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (key.apply(sorted.get(mid)).compareTo(version) > 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns a new index containing all entries of this index and the given entry.
+     * An entry for the same pom is replaced.
+     *
+     * @param entry the entry to add or replace
+     * @return the new index
+     */
+    public ArtifactVersionIndex withEntry(final PomVersionedEntry entry) {
+        final List<VersionGroup> mergedGroups = new ArrayList<>(groups.size() + 1);
+        int mergedSize = size + 1;
+        PomVersionedEntry replaced = null;
+        boolean merged = false;
+        for (final VersionGroup group : groups) {
+            if (!group.group().equals(entry.group())) {
+                mergedGroups.add(group);
+                continue;
+            }
+            final List<PomVersionedEntry> mergedEntries = new ArrayList<>(group.entries().size() + 1);
+            for (final PomVersionedEntry existing : group.entries()) {
+                if (existing.pomLocation().equals(entry.pomLocation())) {
+                    replaced = existing;
+                    mergedSize--;
+                } else {
+                    mergedEntries.add(existing);
+                }
+            }
+            final int position = countNewerThan(mergedEntries, PomVersionedEntry::mavenVersion, entry.mavenVersion());
+            mergedEntries.add(position, entry);
+            mergedGroups.add(new VersionGroup(group.group(), group.version(), List.copyOf(mergedEntries)));
+            merged = true;
+        }
+        if (!merged) {
+            mergedGroups.add(new VersionGroup(entry.group(), entry.groupVersion(), List.of(entry)));
+            mergedGroups.sort(GROUP_ORDER);
+        }
+        return new ArtifactVersionIndex(List.copyOf(mergedGroups), mergedSize, values.with(replaced, entry));
+    }
+
+    /**
+     * Returns all groups of this index in descending order.
+     *
+     * @return all groups of this index
+     */
+    @Unmodifiable
+    public List<VersionGroup> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Returns all entries of this index ordered by group and maven version in descending order.
+     *
+     * @return all entries of this index
+     */
+    @Unmodifiable
+    public List<PomVersionedEntry> getEntries() {
+        final List<PomVersionedEntry> entries = new ArrayList<>(size);
+        groups.forEach(group -> entries.addAll(group.entries()));
+        return List.copyOf(entries);
+    }
+
+    /**
+     * Returns the newest release entry, materialized when this index was created.
+     *
+     * @return the newest release entry as single entry group or null if there are no releases
+     */
+    @Nullable
+    public VersionGroup getLatestRelease() {
+        return latestRelease;
+    }
+
+    /**
+     * Returns the newest snapshot entry, materialized when this index was created.
+     *
+     * @return the newest snapshot entry as single entry group or null if there are no snapshots
+     */
+    @Nullable
+    public VersionGroup getLatestSnapshot() {
+        return latestSnapshot;
+    }
+
+    /**
+     * Returns the newest entry of the given group, materialized when this index was created.
+     *
+     * @param group the group version
+     * @return the newest entry of the group as single entry group or null if the group does not exist
+     */
+    @Nullable
+    public VersionGroup getLatest(final String group) {
+        return latestByGroup.get(group);
+    }
+
+    /**
+     * Looks up all entries that extracted exactly the given value with the given xPath id using the inverted index.
+     * Groups without matching entries are omitted, the order of the index is retained.
+     *
+     * @param entryId   the id of the xPath
+     * @param value     the extracted value
+     * @param snapshots whether snapshot groups are included
+     * @param releases  whether release groups are included
+     * @return the matching groups
+     */
+    public List<VersionGroup> lookup(final String entryId, final String value, final boolean snapshots, final boolean releases) {
+        final List<VersionGroup> result = new ArrayList<>();
+        final List<PomVersionedEntry> matches = values.lookup(entryId, value);
+        int start = 0;
+        while (start < matches.size()) {
+            final PomVersionedEntry first = matches.get(start);
+            int end = start + 1;
+            while (end < matches.size() && matches.get(end).group().equals(first.group())) {
+                end++;
+            }
+            if (first.isSnapshot() ? snapshots : releases) {
+                result.add(new VersionGroup(first.group(), first.groupVersion(), matches.subList(start, end)));
+            }
+            start = end;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the total number of entries in this index.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the unique generation of this index.
+     * Every new index has a new generation, so positions in this index are only valid for the same generation.
+     *
+     * @return the generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Estimates the retained heap size of all entries of this index.
+     *
+     * @return the estimated size in bytes
+     * @see PomVersionedEntry#estimatedBytes()
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (final VersionGroup group : groups) {
+            for (final PomVersionedEntry entry : group.entries()) {
+                bytes += entry.estimatedBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Checks if this index contains no entries.
+     *
+     * @return true if there are no entries, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Queries the index for all entries matching the given filters.
+     * Only versions newer than {@code since} are considered, see {@link PomVersionedEntry#isNewerThan(DefaultArtifactVersion)}.
+     * Groups without matching entries are omitted, the order of the index is retained.
+     *
+     * @param snapshots whether snapshot groups are included
+     * @param releases  whether release groups are included
+     * @param since     the version all returned entries need to be newer than
+     * @param limit     the maximum number of entries per group, zero or negative for no limit
+     * @return the matching groups as views on this index
+     */
+    public List<VersionGroup> query(final boolean snapshots, final boolean releases, final DefaultArtifactVersion since,
+                                    final int limit) {
+        return query(snapshots, releases, since, limit, VersionFilter.NONE);
+    }
+
+    /**
+     * Queries the index for all entries matching the given filters.
+     * Only versions newer than {@code since} are considered, see {@link PomVersionedEntry#isNewerThan(DefaultArtifactVersion)}.
+     * Groups without matching entries are omitted, the order of the index is retained.
+     *
+     * @param snapshots whether snapshot groups are included
+     * @param releases  whether release groups are included
+     * @param since     the version all returned entries need to be newer than
+     * @param limit     the maximum number of matching entries per group, zero or negative for no limit
+     * @param filter    the range and predicates all returned entries need to match
+     * @return the matching groups
+     */
+    public List<VersionGroup> query(final boolean snapshots, final boolean releases, final DefaultArtifactVersion since,
+                                    final int limit, final VersionFilter filter) {
+        return page(snapshots, releases, since, limit, filter, Position.START, Integer.MAX_VALUE).groups();
+    }
+
+    /**
+     * Queries a single page of the entries matching the given filters, starting at the given position.
+     * Only the groups and entries from the position to the end of the page are visited, so the next page is served
+     * without filtering all previous pages again. Entry predicates are checked until one entry more than the page
+     * needs is found, which becomes the position of the next page.
+     *
+     * @param snapshots whether snapshot groups are included
+     * @param releases  whether release groups are included
+     * @param since     the version all returned entries need to be newer than
+     * @param limit     the maximum number of matching entries per group, zero or negative for no limit
+     * @param filter    the range and predicates all returned entries need to match
+     * @param from      the position of the first entry of the page
+     * @param pageSize  the maximum number of entries of the page
+     * @return the page with the matching groups
+     */
+    public Page page(final boolean snapshots, final boolean releases, final DefaultArtifactVersion since,
+                     final int limit, final VersionFilter filter, final Position from, final int pageSize) {
+        final int newerGroups = countNewerThan(groups, VersionGroup::version, since);
+        final int maxMatching = limit > 0 ? limit : Integer.MAX_VALUE;
+        final List<VersionGroup> result = new ArrayList<>();
+        int remaining = pageSize;
+        for (int index = from.group(); index < groups.size(); index++) {
+            final VersionGroup group = groups.get(index);
+            if (index >= newerGroups && group.version().compareTo(since) != 0) {
+                break;
+            }
+            if ((group.isSnapshot() ? !snapshots : !releases) || !filter.matches(group)) {
+                continue;
+            }
+            final int newerEntries = index < newerGroups ? group.entries().size()
+                    : countNewerThan(group.entries(), PomVersionedEntry::mavenVersion, since);
+            final int start = index == from.group() ? from.entry() : 0;
+            final int matched = index == from.group() ? from.matched() : 0;
+            if (filter.predicates().isEmpty()) {
+                final int end = Math.min(maxMatching, newerEntries);
+                if (start >= end) {
+                    continue;
+                }
+                if (remaining == 0) {
+                    return new Page(result, new Position(index, start, start));
+                }
+                final int pageEnd = start + Math.min(end - start, remaining);
+                result.add(group.slice(start, pageEnd));
+                remaining -= pageEnd - start;
+                if (pageEnd < end) {
+                    return new Page(result, new Position(index, pageEnd, pageEnd));
+                }
+                continue;
+            }
+            final int wanted = Math.min(remaining, maxMatching - matched);
+            final List<PomVersionedEntry> matching = new ArrayList<>();
+            for (int entry = start; entry < newerEntries && matched + matching.size() < maxMatching; entry++) {
+                final PomVersionedEntry candidate = group.entries().get(entry);
+                if (!filter.matches(candidate)) {
+                    continue;
+                }
+                if (matching.size() == wanted) {
+                    if (!matching.isEmpty()) {
+                        result.add(new VersionGroup(group.group(), group.version(), matching));
+                    }
+                    return new Page(result, new Position(index, entry, matched + matching.size()));
+                }
+                matching.add(candidate);
+            }
+            if (!matching.isEmpty()) {
+                result.add(new VersionGroup(group.group(), group.version(), matching));
+                remaining -= matching.size();
+            }
+        }
+        return new Page(result, null);
+    }
+
+    /**
+     * The position of an entry in the index.
+     *
+     * @param group   the index of the group
+     * @param entry   the index of the entry within the group
+     * @param matched the number of entries of the group before the entry that matched the query, counting towards its limit
+     */
+    public record Position(int group, int entry, int matched) {
+
+        /**
+         * The position of the first entry.
+         */
+        public static final Position START = new Position(0, 0, 0);
+    }
+
+    /**
+     * A page of a query.
+     *
+     * @param groups the matching groups of the page as views on the index
+     * @param next   the position of the first entry of the next page or null if this is the last page
+     */
+    public record Page(List<VersionGroup> groups, @Nullable Position next) {
+    }
+
+    /**
+     * A group of entries sharing the same group version.
+     *
+     * @param group   the group version
+     * @param version the parsed group version
+     * @param entries the entries of the group in descending order
+     */
+    public record VersionGroup(String group, DefaultArtifactVersion version, @Unmodifiable List<PomVersionedEntry> entries) {
+
+        /**
+         * Checks if the group is a snapshot group.
+         *
+         * @return true if the group version ends with "-SNAPSHOT", false otherwise
+         */
+        public boolean isSnapshot() {
+            return group.endsWith("-SNAPSHOT");
+        }
+
+        /**
+         * Returns a view of this group containing only the given range of entries.
+         *
+         * @param start the index of the first entry to keep
+         * @param end   the index after the last entry to keep
+         * @return the sliced group or this group if the range covers all entries
+         */
+        public VersionGroup slice(final int start, final int end) {
+            if (start == 0 && end == entries.size()) {
+                return this;
+            }
+            return new VersionGroup(group, version, entries.subList(start, end));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.betonquest.reposilite.mapper.settings.XPathEntry;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import org.w3c.dom.Document;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compiled {@link XPathExpression}s of all {@link XPathEntry}s of an {@link Artifact}.
+ * Compiled once whenever the settings are loaded or changed, invalid expressions are collected as errors.
+ */
+public final class ArtifactXPaths {
+
+    /**
+     * The compiled expressions by the id of their {@link XPathEntry}.
+     */
+    private final Map<String, XPathExpression> expressions;
+
+    /**
+     * The element names of all expressions by the id of their {@link XPathEntry}
+     * or null if not all expressions are simple element paths.
+     */
+    @Nullable
+    private final Map<String, List<String>> streamingPaths;
+
+    /**
+     * The errors of all expressions that could not be compiled.
+     */
+    private final List<String> errors;
+
+    private ArtifactXPaths(final Map<String, XPathExpression> expressions, @Nullable final Map<String, List<String>> streamingPaths,
+                           final List<String> errors) {
+        this.expressions = expressions;
+        this.streamingPaths = streamingPaths;
+        this.errors = errors;
+    }
+
+    /**
+     * Compiles all {@link XPathEntry}s of the given artifact.
+     *
+     * @param artifact the artifact to compile the xPaths for
+     * @param xPath    the {@link XPath} to compile with
+     * @return the compiled xPaths
+     */
+    public static ArtifactXPaths compile(final Artifact artifact, final XPath xPath) {
+        final Map<String, XPathExpression> expressions = new LinkedHashMap<>();
+        final Map<String, List<String>> streamingPaths = new LinkedHashMap<>();
+        final List<String> errors = new ArrayList<>();
+        final List<XPathEntry> entries = artifact.versionXPath() == null ? List.of() : artifact.versionXPath();
+        boolean streamable = true;
+        for (final XPathEntry entry : entries) {
+            try {
+                expressions.put(entry.id(), entry.compile(xPath));
+            } catch (final XPathExpressionException exception) {
+                errors.add("Invalid xPath \"" + entry.id() + "\": \"" + entry.xpath() + "\" - " + exception.getMessage());
+                continue;
+            }
+            if (entry.isSimplePath()) {
+                streamingPaths.put(entry.id(), StreamingPomReader.split(entry.xpath().trim()));
+            } else {
+                streamable = false;
+            }
+        }
+        return new ArtifactXPaths(expressions, streamable ? streamingPaths : null, List.copyOf(errors));
+    }
+
+    /**
+     * Returns the errors of all expressions that could not be compiled.
+     *
+     * @return the compile errors
+     */
+    @Unmodifiable
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Checks if all expressions are simple element paths that can be extracted by streaming the pom.
+     *
+     * @return true if the values can be extracted with {@link #extract(StreamingPomReader, InputStream)}
+     */
+    public boolean isStreamable() {
+        return streamingPaths != null;
+    }
+
+    /**
+     * Extracts the values of all expressions by streaming the pom.
+     * Requires {@link #isStreamable()}.
+     *
+     * @param reader the reader to stream the pom with
+     * @param input  the content of the pom
+     * @return the extracted values by the id of their {@link XPathEntry}
+     * @throws XMLStreamException if the pom is malformed
+     */
+    public Map<String, String> extract(final StreamingPomReader reader, final InputStream input) throws XMLStreamException {
+        if (streamingPaths == null) {
+            throw new IllegalStateException("The xPaths can not be extracted by streaming");
+        }
+        return reader.read(input, streamingPaths);
+    }
+
+    /**
+     * Evaluates all compiled expressions on the given document.
+     * Synchronized as {@link XPathExpression}s are not thread-safe.
+     *
+     * @param document the document to evaluate
+     * @return the evaluated values by the id of their {@link XPathEntry}
+     * @throws XPathExpressionException if an expression could not be evaluated
+     */
+    public synchronized Map<String, String> evaluate(final Document document) throws XPathExpressionException {
+        final Map<String, String> values = new HashMap<>();
+        for (final Map.Entry<String, XPathExpression> expression : expressions.entrySet()) {
+            values.put(expression.getKey(), (String) expression.getValue().evaluate(document, XPathConstants.STRING));
+        }
+        return values;
+    }
+}
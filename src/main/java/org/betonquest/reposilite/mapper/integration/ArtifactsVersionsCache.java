@@ -1,18 +1,36 @@
 package org.betonquest.reposilite.mapper.integration;
 
+import com.reposilite.storage.api.Location;
 import org.betonquest.reposilite.adapter.PluginAdapter;
 import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPathExpressionException;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * The ArtifactsVersionsCache for the PomMapperPlugin.
+ * The cache publishes immutable {@link Snapshot}s through an atomic reference.
+ * Readers never lock and always see a complete snapshot, writers build their changes off to the side
+ * and swap them in atomically on top of the latest snapshot.
+ * Changes made to an artifact while a build of the same artifact ran are re-applied to the build's result,
+ * see {@link #rebase(ArtifactVersionIndex, ArtifactVersionIndex, ArtifactVersionIndex)}.
  */
 public class ArtifactsVersionsCache {
 
@@ -22,9 +40,24 @@ public class ArtifactsVersionsCache {
     private final PluginAdapter<PomMapperFacade, ?> plugin;
 
     /**
-     * The cache of all {@link Artifact} versions as defined in the plugin settings.
+     * The listeners notified with the artifact config id whenever its cached versions change.
      */
-    private final Map<String, List<PomVersionedEntry>> pomVersionedEntryCache;
+    private final List<Consumer<String>> changeListeners;
+
+    /**
+     * The current snapshot of all {@link Artifact} versions as defined in the plugin settings.
+     */
+    private final AtomicReference<Snapshot> snapshot;
+
+    /**
+     * The interner sharing parts of the cached entries, replaced on every full cache generation.
+     */
+    private volatile EntryInterner interner;
+
+    /**
+     * Whether the initial cache generation after startup is complete.
+     */
+    private volatile boolean warm;
 
     /**
      * The constructor for the ArtifactsVersionsCache.
@@ -32,10 +65,148 @@ public class ArtifactsVersionsCache {
      * @param plugin The {@link PluginAdapter} of the PomMapperPlugin.
      */
     public ArtifactsVersionsCache(final PluginAdapter<PomMapperFacade, ?> plugin) {
-        this.pomVersionedEntryCache = new HashMap<>();
+        this.snapshot = new AtomicReference<>(Snapshot.EMPTY);
+        this.changeListeners = new CopyOnWriteArrayList<>();
+        this.interner = new EntryInterner();
         this.plugin = plugin;
     }
 
+    /**
+     * Registers a listener that is notified with the artifact config id whenever its cached versions change.
+     *
+     * @param listener The listener to register.
+     */
+    public void addChangeListener(final Consumer<String> listener) {
+        changeListeners.add(listener);
+    }
+
+    private void publish(final Map<String, ArtifactVersionIndex> indices, final Snapshot base) {
+        if (indices.isEmpty()) {
+            return;
+        }
+        snapshot.updateAndGet(current -> {
+            final Map<String, ArtifactVersionIndex> rebased = new HashMap<>();
+            indices.forEach((artifactConfigId, index) ->
+                    rebased.put(artifactConfigId, rebase(index, base.getIndex(artifactConfigId), current.getIndex(artifactConfigId))));
+            return current.with(rebased);
+        });
+        notifyListeners(indices.keySet());
+    }
+
+    /**
+     * Re-applies the changes made to the cached index of an artifact while a build based on an older index ran,
+     * e.g. poms deployed or reconciled during a full rebuild, so the build does not drop them.
+     * The generation of the index tells whether it changed since the build started.
+     *
+     * @param built   the index of the build
+     * @param base    the cached index when the build started
+     * @param current the currently cached index
+     * @return the built index with all changes since the build started
+     */
+    /*default*/ static ArtifactVersionIndex rebase(final ArtifactVersionIndex built, final ArtifactVersionIndex base, final ArtifactVersionIndex current) {
+        if (current.getGeneration() == base.getGeneration()) {
+            return built;
+        }
+        final Map<Location, PomVersionedEntry> removed = getKnownEntries(base);
+        final Map<Location, PomVersionedEntry> entries = getKnownEntries(built);
+        for (final PomVersionedEntry entry : current.getEntries()) {
+            if (removed.remove(entry.pomLocation()) != entry) {
+                entries.put(entry.pomLocation(), entry);
+            }
+        }
+        entries.keySet().removeAll(removed.keySet());
+        return ArtifactVersionIndex.of(entries.values());
+    }
+
+    private void notifyListeners(final Collection<String> artifactConfigIds) {
+        artifactConfigIds.forEach(artifactConfigId -> changeListeners.forEach(listener -> listener.accept(artifactConfigId)));
+    }
+
+    /**
+     * Returns the interner new entries share their parts with.
+     *
+     * @return The current interner.
+     */
+    public EntryInterner getInterner() {
+        return interner;
+    }
+
+    /**
+     * Replaces the interner before a full cache generation, so parts only used by entries that are not kept
+     * can be collected. Entries reused by the generation are re-interned with the new interner.
+     */
+    public void renewInterner() {
+        this.interner = new EntryInterner();
+    }
+
+    /**
+     * Checks if the initial cache generation after startup is complete.
+     *
+     * @return True if the cache is warm, false while it is still being generated.
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Marks the initial cache generation after startup as complete.
+     */
+    public void markWarm() {
+        this.warm = true;
+    }
+
+    /**
+     * Publishes the given known entries without validating them, e.g. to serve a restored {@link CacheSnapshot}
+     * until the cache is generated.
+     *
+     * @param known The known entries by their pom location by artifact config id.
+     */
+    public void restore(final Map<String, Map<Location, PomVersionedEntry>> known) {
+        final Map<String, ArtifactVersionIndex> indices = new HashMap<>();
+        known.forEach((artifactConfigId, entries) -> {
+            if (!entries.isEmpty()) {
+                indices.put(artifactConfigId, ArtifactVersionIndex.of(entries.values()));
+            }
+        });
+        publish(indices, snapshot.get());
+    }
+
+    /**
+     * Returns the current snapshot of the cache.
+     * Use a single snapshot for consistent reads across multiple artifacts.
+     *
+     * @return The current snapshot.
+     */
+    public Snapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Returns the indices of all cached artifacts.
+     *
+     * @return The indices by their artifact config id.
+     */
+    public Map<String, ArtifactVersionIndex> getIndices() {
+        return snapshot.get().indices();
+    }
+
+    /**
+     * Returns all cached entries to be reused for unchanged poms by the next cache generation.
+     *
+     * @return The cached entries by their pom location by artifact config id.
+     */
+    public Map<String, Map<Location, PomVersionedEntry>> getKnownEntries() {
+        final Map<String, Map<Location, PomVersionedEntry>> known = new HashMap<>();
+        getIndices().forEach((artifactConfigId, index) -> known.put(artifactConfigId, getKnownEntries(index)));
+        return known;
+    }
+
+    private static Map<Location, PomVersionedEntry> getKnownEntries(final ArtifactVersionIndex index) {
+        final Map<Location, PomVersionedEntry> entries = new HashMap<>();
+        index.getEntries().forEach(entry -> entries.put(entry.pomLocation(), entry));
+        return entries;
+    }
+
     /**
      * Checks if the cache contains an entry for the given artifact config id.
      *
@@ -43,7 +214,7 @@ public class ArtifactsVersionsCache {
      * @return True if the cache contains an entry for the given artifact config id, false otherwise.
      */
     public boolean hasEntry(final String artifactConfigId) {
-        return pomVersionedEntryCache.containsKey(artifactConfigId);
+        return snapshot.get().indices().containsKey(artifactConfigId);
     }
 
     /**
@@ -53,7 +224,7 @@ public class ArtifactsVersionsCache {
      * @return The number of versions for the given artifact config id.
      */
     public int getVersionsCount(final String artifactConfigId) {
-        return getVersions(artifactConfigId).size();
+        return getIndex(artifactConfigId).size();
     }
 
     /**
@@ -63,27 +234,257 @@ public class ArtifactsVersionsCache {
      * @return All versions for the given artifact config id.
      */
     public List<PomVersionedEntry> getVersions(final String artifactConfigId) {
-        return pomVersionedEntryCache.getOrDefault(artifactConfigId, Collections.emptyList());
+        return getIndex(artifactConfigId).getEntries();
+    }
+
+    /**
+     * Returns the sorted {@link ArtifactVersionIndex} for the given artifact config id.
+     *
+     * @param artifactConfigId The artifact config id to check.
+     * @return The index for the given artifact config id or an empty index if not cached.
+     */
+    public ArtifactVersionIndex getIndex(final String artifactConfigId) {
+        return snapshot.get().getIndex(artifactConfigId);
     }
 
     /**
      * Tries to cache the versions for the given artifact.
+     * Currently cached entries are reused for unchanged poms.
      *
      * @param artifact The artifact to cache.
-     * @return True if the artifact was successfully cached, false otherwise.
+     * @return The result of caching the artifact.
+     */
+    public ArtifactBuildResult attemptToCache(final Artifact artifact) {
+        final Snapshot base = snapshot.get();
+        final ArtifactBuildResult result = build(artifact, getKnownEntries(base.getIndex(artifact.id())));
+        if (result.isCached()) {
+            publish(Map.of(artifact.id(), result.index()), base);
+        }
+        return result;
+    }
+
+    /**
+     * Tries to cache the versions for all given artifacts concurrently using the given worker pool.
+     * The results of all successfully cached artifacts are published at once after all workers are done,
+     * or progressively as soon as each artifact is done.
+     * Known entries, e.g. restored from a {@link CacheSnapshot}, are reused for unchanged poms.
+     *
+     * @param artifacts   The artifacts to cache.
+     * @param executor    The worker pool to generate the cache with.
+     * @param known       The known entries by their pom location by artifact config id.
+     * @param progressive Whether each artifact is published as soon as it is done.
+     * @return The result for each artifact in the given order.
      */
-    public boolean attemptToCache(final Artifact artifact) {
+    public Map<Artifact, ArtifactBuildResult> attemptToCache(final List<Artifact> artifacts, final ExecutorService executor,
+                                                             final Map<String, Map<Location, PomVersionedEntry>> known,
+                                                             final boolean progressive) {
+        final long start = System.nanoTime();
+        final Snapshot base = snapshot.get();
+        final Map<Artifact, Future<ArtifactBuildResult>> pending = new LinkedHashMap<>();
+        artifacts.forEach(artifact -> pending.put(artifact, executor.submit(() -> {
+            final ArtifactBuildResult result = build(artifact, known.getOrDefault(artifact.id(), Map.of()));
+            if (progressive && result.isCached()) {
+                publish(Map.of(artifact.id(), result.index()), base);
+            }
+            return result;
+        })));
+
+        final Map<Artifact, ArtifactBuildResult> results = new LinkedHashMap<>();
+        final Map<String, ArtifactVersionIndex> indices = new HashMap<>();
+        for (final Map.Entry<Artifact, Future<ArtifactBuildResult>> entry : pending.entrySet()) {
+            final ArtifactBuildResult result = awaitResult(entry.getValue());
+            if (result == null) {
+                results.put(entry.getKey(), ArtifactBuildResult.failed(entry.getKey().id(), System.nanoTime() - start));
+                continue;
+            }
+            results.put(entry.getKey(), result);
+            if (result.isCached()) {
+                indices.put(entry.getKey().id(), result.index());
+            }
+        }
+        if (!progressive) {
+            publish(indices, base);
+        }
+        return results;
+    }
+
+    @Nullable
+    private ArtifactBuildResult awaitResult(final Future<ArtifactBuildResult> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        } catch (final ExecutionException e) {
+            plugin.getLogger().exception(e.getCause());
+        }
+        return null;
+    }
+
+    private ArtifactBuildResult build(final Artifact artifact, final Map<Location, PomVersionedEntry> known) {
+        final long start = System.nanoTime();
+        final BuildStatistics statistics = new BuildStatistics();
+        final PomMapperFacade baseFacade = plugin.getPluginFacade();
+        ArtifactVersionIndex index = null;
+        try {
+            final List<PomVersionedEntry> mappedVersions = baseFacade.getMappedVersions(artifact, known, statistics);
+            if (!mappedVersions.isEmpty()) {
+                index = ArtifactVersionIndex.of(mappedVersions);
+            }
+        } catch (final ParserConfigurationException e) {
+            baseFacade.getPlugin().getLogger().exception(e);
+        }
+        return statistics.toResult(artifact.id(), index, System.nanoTime() - start);
+    }
+
+    /**
+     * Tries to update the cached versions of the given artifact with a single pom.
+     * Only the given pom is read, an already cached entry for the same pom is replaced
+     * and older snapshot builds exceeding the artifact's snapshot retention are dropped.
+     * Requires the artifact to be cached already, otherwise the full artifact needs to be cached.
+     *
+     * @param artifact    The artifact the pom belongs to.
+     * @param pomLocation The location of the pom to cache.
+     * @return True if the pom was successfully merged into the cache, false otherwise.
+     */
+    public boolean attemptToCache(final Artifact artifact, final Location pomLocation) {
+        if (!hasEntry(artifact.id())) {
+            return false;
+        }
         final PomMapperFacade baseFacade = plugin.getPluginFacade();
         try {
-            final List<PomVersionedEntry> mappedVersions = baseFacade.getMappedVersions(artifact);
-            if (mappedVersions.isEmpty()) {
+            final PomVersionedEntry mappedVersion = baseFacade.getMappedVersion(artifact, pomLocation);
+            if (mappedVersion == null) {
                 return false;
             }
-            pomVersionedEntryCache.put(artifact.id(), mappedVersions);
-        } catch (XPathExpressionException | ParserConfigurationException e) {
+            snapshot.updateAndGet(current -> current.with(Map.of(artifact.id(), retainSnapshots(artifact, current.getIndex(artifact.id()).withEntry(mappedVersion)))));
+            notifyListeners(List.of(artifact.id()));
+        } catch (final ParserConfigurationException e) {
             baseFacade.getPlugin().getLogger().exception(e);
             return false;
         }
         return true;
     }
+
+    /**
+     * Reconciles the cached versions of the given artifact with the poms currently listed in its storage,
+     * e.g. to pick up poms copied into the storage directly or removed by a cleanup.
+     * The version directories are always listed, as such changes do not update the maven-metadata.xml.
+     * Only poms that are missing in the cache are read, cached poms missing in the storage are removed.
+     * Changed content of already cached poms is left to full cache updates.
+     * Artifacts that are not cached yet or list no poms at all, e.g. because the listing failed, are left unchanged,
+     * as are artifacts that are no longer configured once the changes are applied.
+     *
+     * @param artifact   The artifact to reconcile.
+     * @param statistics The statistics to count and limit the storage calls with.
+     * @return The result of the reconciliation.
+     */
+    public ReconcileResult reconcile(final Artifact artifact, final BuildStatistics statistics) {
+        if (!hasEntry(artifact.id())) {
+            return new ReconcileResult(artifact.id(), 0, 0, 0);
+        }
+        final PomMapperFacade baseFacade = plugin.getPluginFacade();
+        final Map<Location, PomVersionedEntry> cached = getKnownEntries(getIndex(artifact.id()));
+        final List<Location> listed = baseFacade.getListedMavenVersions(artifact, statistics);
+        if (listed.isEmpty()) {
+            return new ReconcileResult(artifact.id(), 0, 0, statistics.getStorageCalls());
+        }
+        final Map<Location, PomVersionedEntry> removed = new HashMap<>(cached);
+        listed.forEach(removed::remove);
+        final List<PomVersionedEntry> added = new ArrayList<>();
+        try {
+            for (final Location pomLocation : listed) {
+                if (cached.containsKey(pomLocation) || Thread.currentThread().isInterrupted()) {
+                    continue;
+                }
+                final PomVersionedEntry entry = baseFacade.getMappedVersion(artifact, pomLocation, statistics);
+                if (entry != null) {
+                    added.add(entry);
+                }
+            }
+        } catch (final ParserConfigurationException e) {
+            baseFacade.getPlugin().getLogger().exception(e);
+            return new ReconcileResult(artifact.id(), 0, 0, statistics.getStorageCalls());
+        }
+        if (removed.isEmpty() && added.isEmpty()) {
+            return new ReconcileResult(artifact.id(), 0, 0, statistics.getStorageCalls());
+        }
+        final AtomicBoolean applied = new AtomicBoolean();
+        snapshot.updateAndGet(current -> {
+            applied.set(isConfigured(artifact) && current.indices().containsKey(artifact.id()));
+            return applied.get() ? current.with(Map.of(artifact.id(), reconciled(current.getIndex(artifact.id()), added, removed))) : current;
+        });
+        if (!applied.get()) {
+            return new ReconcileResult(artifact.id(), 0, 0, statistics.getStorageCalls());
+        }
+        notifyListeners(List.of(artifact.id()));
+        return new ReconcileResult(artifact.id(), added.size(), removed.size(), statistics.getStorageCalls());
+    }
+
+    private boolean isConfigured(final Artifact artifact) {
+        return plugin.getPluginFacade().getPlugin().getConfig().get().getArtifacts().contains(artifact);
+    }
+
+    /**
+     * Applies the changes found by a reconciliation to the currently cached index.
+     * The storage is listed slowly, so entries changed by deploys in the meantime take precedence:
+     * an entry is only removed if it is still the one seen before the listing and only added if its pom is not cached yet.
+     *
+     * @param index   the currently cached index
+     * @param added   the entries of the poms missing in the cache
+     * @param removed the cached entries seen before the listing whose poms are missing in the storage by their pom location
+     * @return the reconciled index
+     */
+    /*default*/ static ArtifactVersionIndex reconciled(final ArtifactVersionIndex index, final List<PomVersionedEntry> added,
+                                                     final Map<Location, PomVersionedEntry> removed) {
+        final Map<Location, PomVersionedEntry> entries = getKnownEntries(index);
+        removed.forEach((pomLocation, entry) -> entries.remove(pomLocation, entry));
+        added.forEach(entry -> entries.putIfAbsent(entry.pomLocation(), entry));
+        return ArtifactVersionIndex.of(entries.values());
+    }
+
+    private ArtifactVersionIndex retainSnapshots(final Artifact artifact, final ArtifactVersionIndex index) {
+        final List<PomVersionedEntry> entries = index.getEntries();
+        final Set<Location> retained = new HashSet<>(SnapshotRetention.retain(artifact, entries.stream().map(PomVersionedEntry::pomLocation).toList()));
+        if (retained.size() == entries.size()) {
+            return index;
+        }
+        return ArtifactVersionIndex.of(entries.stream().filter(entry -> retained.contains(entry.pomLocation())).toList());
+    }
+
+    /**
+     * An immutable snapshot of the cache.
+     *
+     * @param generation the generation of the snapshot, incremented with every change
+     * @param indices    the indices of all cached artifacts by their artifact config id
+     */
+    public record Snapshot(long generation, @Unmodifiable Map<String, ArtifactVersionIndex> indices) {
+
+        /**
+         * The initial snapshot without any cached artifacts.
+         */
+        public static final Snapshot EMPTY = new Snapshot(0, Map.of());
+
+        /**
+         * Returns the index for the given artifact config id.
+         *
+         * @param artifactConfigId The artifact config id.
+         * @return The index for the given artifact config id or an empty index if not cached.
+         */
+        public ArtifactVersionIndex getIndex(final String artifactConfigId) {
+            return indices.getOrDefault(artifactConfigId, ArtifactVersionIndex.EMPTY);
+        }
+
+        /**
+         * Returns a new snapshot of the next generation with the given indices added or replaced.
+         *
+         * @param changed the changed indices by their artifact config id
+         * @return the new snapshot
+         */
+        public Snapshot with(final Map<String, ArtifactVersionIndex> changed) {
+            final Map<String, ArtifactVersionIndex> merged = new HashMap<>(indices);
+            merged.putAll(changed);
+            return new Snapshot(generation + 1, Map.copyOf(merged));
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Shares a single instance per key between all cached entries, e.g. parsed versions that repeat across many poms.
+ * Once the maximum number of keys is reached new keys are no longer shared, so the interner never grows unbounded.
+ *
+ * @param <T> the type of the shared instances
+ */
+public final class BoundedInterner<T> {
+
+    /**
+     * The shared instances by their key.
+     */
+    private final Map<String, T> instances;
+
+    /**
+     * The maximum number of shared instances.
+     */
+    private final int maxSize;
+
+    /**
+     * Creates a new interner.
+     *
+     * @param maxSize the maximum number of shared instances
+     */
+    public BoundedInterner(final int maxSize) {
+        this.instances = new ConcurrentHashMap<>();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the shared instance for the given key, creating it if it is not known yet.
+     *
+     * @param key     the key of the instance
+     * @param factory creates the instance for the key
+     * @return the shared instance or a new unshared instance if the interner is full
+     */
+    public T intern(final String key, final Function<String, T> factory) {
+        final T shared = instances.get(key);
+        if (shared != null) {
+            return shared;
+        }
+        if (instances.size() >= maxSize) {
+            return factory.apply(key);
+        }
+        return instances.computeIfAbsent(key, factory);
+    }
+
+    /**
+     * Returns the number of shared instances.
+     *
+     * @return the number of shared instances
+     */
+    public int size() {
+        return instances.size();
+    }
+}
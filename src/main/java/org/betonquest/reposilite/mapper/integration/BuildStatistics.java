@@ -0,0 +1,108 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Counts the work done while caching a single artifact.
+ * Not thread-safe, every artifact is cached by a single thread with its own statistics.
+ * Storage calls of background work can be rate limited with a {@link StorageRateLimiter}.
+ */
+public final class BuildStatistics {
+
+    /**
+     * The number of poms read and parsed.
+     */
+    private int parsed;
+
+    /**
+     * The number of unchanged poms reused without reading them.
+     */
+    private int skipped;
+
+    /**
+     * The number of poms that could not be read or parsed.
+     */
+    private int failed;
+
+    /**
+     * The number of calls to the storage of the repository.
+     */
+    private int storageCalls;
+
+    /**
+     * The rate limiter of the storage calls or null if unlimited.
+     */
+    @Nullable
+    private final StorageRateLimiter rateLimiter;
+
+    /**
+     * Creates new empty statistics.
+     */
+    public BuildStatistics() {
+        this(null);
+    }
+
+    /**
+     * Creates new empty statistics that limit the rate of the counted storage calls.
+     *
+     * @param rateLimiter the rate limiter of the storage calls or null if unlimited, see {@link #storageCalls(int)}
+     */
+    public BuildStatistics(@Nullable final StorageRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Counts a pom read and parsed.
+     */
+    public void parsed() {
+        parsed++;
+    }
+
+    /**
+     * Counts an unchanged pom reused without reading it.
+     */
+    public void skipped() {
+        skipped++;
+    }
+
+    /**
+     * Counts a pom that could not be read or parsed.
+     */
+    public void failed() {
+        failed++;
+    }
+
+    /**
+     * Counts calls to the storage of the repository.
+     * Has to be called before the calls are made, so the rate limiter can delay them.
+     *
+     * @param calls the number of calls about to be made
+     */
+    public void storageCalls(final int calls) {
+        storageCalls += calls;
+        if (rateLimiter != null) {
+            rateLimiter.acquire(calls);
+        }
+    }
+
+    /**
+     * Returns the number of calls to the storage of the repository.
+     *
+     * @return the number of storage calls
+     */
+    public int getStorageCalls() {
+        return storageCalls;
+    }
+
+    /**
+     * Returns the result of caching the given artifact with these statistics.
+     *
+     * @param artifactConfigId the artifact config id
+     * @param index            the built index or null if caching failed
+     * @param durationNanos    the duration of caching the artifact in nanoseconds
+     * @return the result
+     */
+    public ArtifactBuildResult toResult(final String artifactConfigId, @Nullable final ArtifactVersionIndex index, final long durationNanos) {
+        return new ArtifactBuildResult(artifactConfigId, index, parsed, skipped, failed, storageCalls, durationNanos);
+    }
+}
@@ -0,0 +1,255 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.betonquest.reposilite.mapper.settings.XPathEntry;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persists the {@link ArtifactsVersionsCache} to a compact local file to speed up the startup.
+ * Restored entries are only reused as long as the fingerprint of their pom did not change.
+ */
+public class CacheSnapshot {
+
+    /**
+     * The magic number identifying a snapshot file.
+     */
+    private static final int MAGIC = 0x504D_4D43;
+
+    /**
+     * The version of the file format, snapshots of other versions are ignored.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The maximum number of artifacts, entries per artifact and values per entry in a snapshot file.
+     */
+    private static final int MAX_COUNT = 1 << 24;
+
+    /**
+     * The maximum length in bytes of a single string in a snapshot file.
+     */
+    private static final int MAX_STRING_LENGTH = 1 << 20;
+
+    /**
+     * The file the snapshot is stored in.
+     */
+    private final Path file;
+
+    /**
+     * The entries of the last written snapshot by their artifact config id.
+     */
+    private Map<String, List<PomVersionedEntry>> written;
+
+    /**
+     * Creates a new snapshot stored in the given file.
+     *
+     * @param file the file to store the snapshot in
+     */
+    public CacheSnapshot(final Path file) {
+        this.file = file;
+        this.written = Map.of();
+    }
+
+    /**
+     * Returns a signature of all settings of the artifact that affect its cached entries.
+     * Entries of an artifact can only be reused as long as its signature did not change.
+     *
+     * @param artifact the artifact to get the signature for
+     * @return the signature of the artifact
+     */
+    public static String signature(final Artifact artifact) {
+        final StringBuilder signature = new StringBuilder()
+                .append(artifact.repository()).append('\n')
+                .append(artifact.groupId()).append('\n')
+                .append(artifact.artifactId());
+        final List<XPathEntry> xPaths = artifact.versionXPath() == null ? List.of() : artifact.versionXPath();
+        for (final XPathEntry xPath : xPaths) {
+            signature.append('\n').append(xPath.id()).append('=').append(xPath.xpath());
+        }
+        return signature.toString();
+    }
+
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(final DataInputStream input) throws IOException {
+        final int length = readCount(input, MAX_STRING_LENGTH, "string length");
+        final byte[] bytes = input.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Corrupt snapshot, string of " + length + " bytes exceeds the remaining " + bytes.length + " bytes");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readCount(final DataInputStream input, final int max, final String name) throws IOException {
+        final int count = input.readInt();
+        if (count < 0 || count > max) {
+            throw new IOException("Corrupt snapshot, invalid " + name + " " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the file the snapshot is stored in.
+     *
+     * @return the snapshot file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Writes the given indices to the snapshot file, replacing the previous snapshot atomically if the file system supports it.
+     * Nothing is written if the entries did not change since the last written snapshot.
+     * Cache entries are immutable and reused as long as their pom did not change, so entries are compared by identity.
+     *
+     * @param indices the indices by their artifact config id
+     * @return true if the snapshot was written, false if it did not change
+     * @throws IOException if the snapshot could not be written
+     */
+    public synchronized boolean write(final Map<String, ArtifactVersionIndex> indices) throws IOException {
+        final Map<String, List<PomVersionedEntry>> entries = new HashMap<>();
+        indices.forEach((artifactConfigId, index) -> entries.put(artifactConfigId, index.getEntries()));
+        if (isWritten(entries)) {
+            return false;
+        }
+        final Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        final Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeInt(indices.size());
+                for (final Map.Entry<String, ArtifactVersionIndex> index : indices.entrySet()) {
+                    writeIndex(output, index.getKey(), index.getValue());
+                }
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        written = entries;
+        return true;
+    }
+
+    private boolean isWritten(final Map<String, List<PomVersionedEntry>> entries) {
+        if (!entries.keySet().equals(written.keySet())) {
+            return false;
+        }
+        for (final Map.Entry<String, List<PomVersionedEntry>> artifact : entries.entrySet()) {
+            final List<PomVersionedEntry> current = artifact.getValue();
+            final List<PomVersionedEntry> previous = written.get(artifact.getKey());
+            if (current.size() != previous.size()) {
+                return false;
+            }
+            for (int i = 0; i < current.size(); i++) {
+                if (current.get(i) != previous.get(i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void writeIndex(final DataOutputStream output, final String artifactConfigId, final ArtifactVersionIndex index) throws IOException {
+        final List<PomVersionedEntry> entries = index.getEntries();
+        writeString(output, artifactConfigId);
+        writeString(output, entries.isEmpty() ? "" : signature(entries.get(0).artifact()));
+        output.writeInt(entries.size());
+        for (final PomVersionedEntry entry : entries) {
+            writeString(output, entry.group());
+            writeString(output, entry.maven());
+            writeString(output, entry.pomLocation().toString());
+            writeString(output, entry.fingerprint() == null ? "" : entry.fingerprint());
+            output.writeInt(entry.pom().size());
+            for (final Map.Entry<String, String> value : entry.pom().entrySet()) {
+                writeString(output, value.getKey());
+                writeString(output, value.getValue());
+            }
+        }
+    }
+
+    /**
+     * Reads the entries of all given artifacts from the snapshot file.
+     * Entries of artifacts whose signature changed since the snapshot was written are omitted.
+     *
+     * @param artifacts the currently configured artifacts
+     * @param interner  the interner to share parts of the restored entries with
+     * @return the restored entries by their pom location by artifact config id,
+     * empty if the snapshot file does not exist or has an unknown format
+     * @throws IOException if the snapshot could not be read or is corrupt
+     */
+    public Map<String, Map<Location, PomVersionedEntry>> read(final List<Artifact> artifacts, final EntryInterner interner) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Map.of();
+        }
+        final Map<String, Artifact> configured = new HashMap<>();
+        artifacts.forEach(artifact -> configured.put(artifact.id(), artifact));
+        final Map<String, Map<Location, PomVersionedEntry>> restored = new HashMap<>();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+                return Map.of();
+            }
+            final int artifactCount = readCount(input, MAX_COUNT, "artifact count");
+            for (int i = 0; i < artifactCount; i++) {
+                final String artifactConfigId = readString(input);
+                final String signature = readString(input);
+                final Artifact artifact = configured.get(artifactConfigId);
+                final boolean valid = artifact != null && signature.equals(signature(artifact));
+                final Map<Location, PomVersionedEntry> entries = readEntries(input, artifact, valid, interner);
+                if (valid) {
+                    restored.put(artifactConfigId, entries);
+                }
+            }
+        }
+        return restored;
+    }
+
+    private Map<Location, PomVersionedEntry> readEntries(final DataInputStream input, @Nullable final Artifact artifact, final boolean valid,
+                                                         final EntryInterner interner) throws IOException {
+        final int entryCount = readCount(input, MAX_COUNT, "entry count");
+        final Map<Location, PomVersionedEntry> entries = new HashMap<>();
+        for (int i = 0; i < entryCount; i++) {
+            final String group = readString(input);
+            final String maven = readString(input);
+            final Location pomLocation = Location.of(readString(input));
+            final String fingerprint = readString(input);
+            final int valueCount = readCount(input, MAX_COUNT, "value count");
+            final Map<String, String> values = new LinkedHashMap<>();
+            for (int j = 0; j < valueCount; j++) {
+                values.put(readString(input), readString(input));
+            }
+            if (valid) {
+                entries.put(pomLocation, new PomVersionedEntry(artifact, group, maven, values, pomLocation, fingerprint.isEmpty() ? null : fingerprint, interner));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,57 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory for the bounded worker pools used to generate the {@link ArtifactsVersionsCache}.
+ */
+public final class CacheWorkerPool {
+
+    /**
+     * The name prefix of all platform worker threads.
+     */
+    private static final String THREAD_PREFIX = "PomMapper-Cache-";
+
+    private CacheWorkerPool() {
+    }
+
+    /**
+     * Creates a new bounded worker pool.
+     * Virtual threads are only used if supported by the running JVM, platform threads are used otherwise.
+     *
+     * @param threads the maximum number of concurrently running workers, at least one worker is used
+     * @param virtual whether virtual threads should be used
+     * @return the new worker pool, to be shut down by the caller
+     */
+    public static ExecutorService create(final int threads, final boolean virtual) {
+        final int workers = Math.max(1, threads);
+        final ThreadFactory virtualFactory = virtual ? virtualThreadFactory() : null;
+        if (virtualFactory != null) {
+            return Executors.newFixedThreadPool(workers, virtualFactory);
+        }
+        final AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(workers, runnable -> {
+            final Thread thread = new Thread(runnable, THREAD_PREFIX + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Resolves the virtual thread factory reflectively to stay compatible with JVMs without virtual threads.
+     *
+     * @return the virtual thread factory or null if virtual threads are not supported
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
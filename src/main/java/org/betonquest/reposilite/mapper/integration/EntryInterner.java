@@ -0,0 +1,116 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares equal parts of cached entries between all entries created with the same interner,
+ * i.e. the schemas and values of their {@link PomValues}, their groups and their parsed group versions.
+ * The cache replaces its interner on every full cache generation and re-interns the entries it keeps,
+ * so parts only used by removed versions or changed xPaths are no longer referenced and can be collected.
+ */
+public final class EntryInterner {
+
+    /**
+     * The maximum number of distinct values shared between entries.
+     */
+    private static final int MAX_SHARED_VALUES = 65_536;
+
+    /**
+     * The maximum number of distinct group versions shared between entries.
+     */
+    private static final int MAX_SHARED_GROUPS = 65_536;
+
+    /**
+     * The schemas by their xPath ids in iteration order.
+     */
+    private final Map<List<String>, PomValues.Schema> schemas;
+
+    /**
+     * The values shared between entries by their text.
+     */
+    private final BoundedInterner<PomValues.Value> values;
+
+    /**
+     * The groups shared between all entries of the same group.
+     */
+    private final BoundedInterner<String> groups;
+
+    /**
+     * The parsed group versions shared between all entries of the same group.
+     */
+    private final BoundedInterner<DefaultArtifactVersion> groupVersions;
+
+    /**
+     * Creates a new empty interner.
+     */
+    public EntryInterner() {
+        this.schemas = new ConcurrentHashMap<>();
+        this.values = new BoundedInterner<>(MAX_SHARED_VALUES);
+        this.groups = new BoundedInterner<>(MAX_SHARED_GROUPS);
+        this.groupVersions = new BoundedInterner<>(MAX_SHARED_GROUPS);
+    }
+
+    /**
+     * Returns the shared schema of the given xPath ids.
+     *
+     * @param ids the xPath ids in iteration order
+     * @return the shared schema
+     */
+    /*default*/ PomValues.Schema schema(final List<String> ids) {
+        return schemas.computeIfAbsent(ids, PomValues.Schema::new);
+    }
+
+    /**
+     * Returns the shared value with the given text, using the given value if it is not shared yet.
+     *
+     * @param text  the text of the value
+     * @param value the value to share if none is shared yet or null to parse the text
+     * @return the shared value
+     */
+    /*default*/ PomValues.Value value(final String text, @Nullable final PomValues.Value value) {
+        return values.intern(text, key -> value == null ? new PomValues.Value(key) : value);
+    }
+
+    /**
+     * Returns the shared instance of the given group.
+     *
+     * @param group the group version
+     * @return the shared group version
+     */
+    public String group(final String group) {
+        return groups.intern(group, key -> key);
+    }
+
+    /**
+     * Returns the shared parsed version of the given group.
+     *
+     * @param group the group version
+     * @return the shared parsed group version
+     */
+    public DefaultArtifactVersion groupVersion(final String group) {
+        return groupVersions.intern(group, DefaultArtifactVersion::new);
+    }
+
+    /**
+     * Returns the given entry sharing its parts with all entries of this interner,
+     * e.g. to keep reused entries shared with newly read ones after the interner was replaced.
+     *
+     * @param entry the entry to intern
+     * @return the given entry if its parts are already shared, otherwise a copy with shared parts
+     */
+    public PomVersionedEntry intern(final PomVersionedEntry entry) {
+        final PomValues pom = entry.pom().intern(this);
+        final String group = group(entry.group());
+        final DefaultArtifactVersion groupVersion = groupVersions.intern(entry.group(), key -> entry.groupVersion());
+        if (pom == entry.pom() && group == entry.group() && groupVersion == entry.groupVersion()) {
+            return entry;
+        }
+        return new PomVersionedEntry(entry.artifact(), group, entry.maven(), pom, entry.pomLocation(), entry.fingerprint(),
+                groupVersion, entry.mavenVersion());
+    }
+}
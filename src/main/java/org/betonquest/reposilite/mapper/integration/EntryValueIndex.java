@@ -0,0 +1,128 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex.VersionGroup;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable inverted index of the values extracted by xPaths of a single artifact.
+ * Maps each xPath id and extracted value to all {@link PomVersionedEntry}s declaring it,
+ * in the same descending order as the {@link ArtifactVersionIndex}.
+ */
+public final class EntryValueIndex {
+
+    /**
+     * An index without any values.
+     */
+    public static final EntryValueIndex EMPTY = new EntryValueIndex(Map.of());
+
+    /**
+     * Descending order of entries by their group version and maven version, equal to the order of the {@link ArtifactVersionIndex}.
+     */
+    private static final Comparator<PomVersionedEntry> INDEX_ORDER = Comparator
+            .comparing(PomVersionedEntry::groupVersion)
+            .thenComparing(PomVersionedEntry::group)
+            .thenComparing(PomVersionedEntry::mavenVersion)
+            .thenComparing(PomVersionedEntry::maven)
+            .reversed();
+
+    /**
+     * The matching entries by their extracted value by xPath id.
+     */
+    private final Map<String, Map<String, List<PomVersionedEntry>>> postings;
+
+    private EntryValueIndex(final Map<String, Map<String, List<PomVersionedEntry>>> postings) {
+        this.postings = postings;
+    }
+
+    /**
+     * Creates a new index from the given groups.
+     *
+     * @param groups the groups in descending order
+     * @return the new index
+     */
+    public static EntryValueIndex of(final List<VersionGroup> groups) {
+        final Map<String, Map<String, List<PomVersionedEntry>>> postings = new HashMap<>();
+        for (final VersionGroup group : groups) {
+            for (final PomVersionedEntry entry : group.entries()) {
+                entry.pom().forEach((entryId, value) -> {
+                    if (value != null) {
+                        postings.computeIfAbsent(entryId, key -> new HashMap<>())
+                                .computeIfAbsent(value, key -> new ArrayList<>()).add(entry);
+                    }
+                });
+            }
+        }
+        return new EntryValueIndex(postings);
+    }
+
+    /**
+     * Returns a new index with the given entry added and the replaced entry removed.
+     * Only the postings of the values of both entries are copied, all other postings are shared with this index.
+     *
+     * @param replaced the entry of the same pom that is replaced or null if the entry is new
+     * @param added    the entry to add
+     * @return the new index
+     */
+    public EntryValueIndex with(@Nullable final PomVersionedEntry replaced, final PomVersionedEntry added) {
+        final Map<String, Map<String, List<PomVersionedEntry>>> changed = new HashMap<>(postings);
+        if (replaced != null) {
+            replaced.pom().forEach((entryId, value) -> {
+                if (value != null) {
+                    update(changed, entryId, value, values -> values.remove(replaced));
+                }
+            });
+        }
+        added.pom().forEach((entryId, value) -> {
+            if (value != null) {
+                update(changed, entryId, value, values -> {
+                    final int position = Collections.binarySearch(values, added, INDEX_ORDER);
+                    values.add(position < 0 ? -position - 1 : position, added);
+                });
+            }
+        });
+        return new EntryValueIndex(changed);
+    }
+
+    private void update(final Map<String, Map<String, List<PomVersionedEntry>>> changed, final String entryId, final String value,
+                        final Consumer<List<PomVersionedEntry>> change) {
+        Map<String, List<PomVersionedEntry>> values = changed.get(entryId);
+        if (values == null || values == postings.get(entryId)) {
+            values = values == null ? new HashMap<>() : new HashMap<>(values);
+            changed.put(entryId, values);
+        }
+        final List<PomVersionedEntry> current = values.get(value);
+        final List<PomVersionedEntry> entries = current == null ? new ArrayList<>() : new ArrayList<>(current);
+        change.accept(entries);
+        if (entries.isEmpty()) {
+            values.remove(value);
+        } else {
+            values.put(value, entries);
+        }
+    }
+
+    /**
+     * Returns all entries that extracted exactly the given value with the given xPath id.
+     *
+     * @param entryId the id of the xPath
+     * @param value   the extracted value
+     * @return the matching entries in descending order
+     */
+    @Unmodifiable
+    public List<PomVersionedEntry> lookup(final String entryId, final String value) {
+        final Map<String, List<PomVersionedEntry>> values = postings.get(entryId);
+        if (values == null) {
+            return List.of();
+        }
+        final List<PomVersionedEntry> entries = values.get(value);
+        return entries == null ? List.of() : Collections.unmodifiableList(entries);
+    }
+}
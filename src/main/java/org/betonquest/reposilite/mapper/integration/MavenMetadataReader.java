@@ -0,0 +1,76 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the versions listed in an artifact's maven-metadata.xml using StAX.
+ */
+public class MavenMetadataReader {
+
+    /**
+     * The name of the maven metadata file.
+     */
+    public static final String METADATA_FILE = "maven-metadata.xml";
+
+    /**
+     * The element path of the listed versions.
+     */
+    private static final List<String> VERSION_PATH = List.of("metadata", "versioning", "versions", "version");
+
+    /**
+     * The factory to create {@link XMLStreamReader}s with.
+     */
+    private final XMLInputFactory inputFactory;
+
+    /**
+     * Creates a new reader with a secure {@link XMLInputFactory} that does not resolve DTDs or external entities.
+     */
+    public MavenMetadataReader() {
+        this.inputFactory = XMLInputFactory.newInstance();
+        this.inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private XMLStreamReader createReader(final InputStream input) throws XMLStreamException {
+        synchronized (inputFactory) {
+            return inputFactory.createXMLStreamReader(input);
+        }
+    }
+
+    /**
+     * Reads all versions listed in the given maven-metadata.xml.
+     *
+     * @param input the content of the maven-metadata.xml
+     * @return the listed versions in the order of the metadata
+     * @throws XMLStreamException if the metadata is malformed
+     */
+    public List<String> readVersions(final InputStream input) throws XMLStreamException {
+        final List<String> versions = new ArrayList<>();
+        final List<String> stack = new ArrayList<>();
+        final XMLStreamReader reader = createReader(input);
+        try {
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    stack.add(reader.getLocalName());
+                    if (stack.equals(VERSION_PATH)) {
+                        versions.add(reader.getElementText().trim());
+                        stack.remove(stack.size() - 1);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    stack.remove(stack.size() - 1);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return versions;
+    }
+}
@@ -13,9 +13,11 @@ import com.reposilite.storage.api.FileDetails;
 import com.reposilite.storage.api.FileType;
 import com.reposilite.storage.api.Location;
 import org.betonquest.reposilite.adapter.PluginAdapter;
+import org.betonquest.reposilite.mapper.metrics.PomMapperMetrics;
 import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.betonquest.reposilite.mapper.settings.FingerprintSource;
 import org.betonquest.reposilite.mapper.settings.PomMapperPluginSettings;
-import org.betonquest.reposilite.mapper.settings.XPathEntry;
+import org.betonquest.reposilite.mapper.settings.VersionEnumeration;
 import org.jetbrains.annotations.Nullable;
 import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
@@ -24,15 +26,25 @@ import panda.std.Result;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * Base {@link Facade} for the PomMapperPlugin.
@@ -40,6 +52,16 @@ import java.util.Map;
 @SuppressWarnings("PMD.CouplingBetweenObjects")
 public class PomMapperFacade implements Facade, EventListener<ReposiliteInitializeEvent> {
 
+    /**
+     * The length of a hex encoded SHA-1 checksum.
+     */
+    private static final int SHA1_LENGTH = 40;
+
+    /**
+     * The pattern of a hex encoded SHA-1 checksum.
+     */
+    private static final Pattern SHA1 = Pattern.compile("[0-9a-f]{" + SHA1_LENGTH + "}");
+
     /**
      * The {@link PluginAdapter} of the PomMapperPlugin.
      */
@@ -55,11 +77,36 @@ public class PomMapperFacade implements Facade, EventListener<ReposiliteInitiali
      */
     private final DocumentBuilderFactory documentBuilderFactory;
 
+    /**
+     * The {@link StreamingPomReader} to extract simple element paths without a DOM.
+     */
+    private final StreamingPomReader streamingPomReader;
+
+    /**
+     * The {@link MavenMetadataReader} to read the versions of an artifact.
+     */
+    private final MavenMetadataReader mavenMetadataReader;
+
     /**
      * The {@link ArtifactsVersionsCache} to access cached artifact versions.
      */
     private final ArtifactsVersionsCache artifactsVersionsCache;
 
+    /**
+     * The compiled xPaths of all configured artifacts.
+     */
+    private final Map<Artifact, ArtifactXPaths> compiledXPaths;
+
+    /**
+     * The configured artifacts by their repository and gav, replaced as a whole on every settings change.
+     */
+    private volatile Map<ArtifactKey, Artifact> artifactsByGav;
+
+    /**
+     * The {@link PomMapperMetrics} of cache builds and REST API requests.
+     */
+    private final PomMapperMetrics metrics;
+
     /**
      * The {@link MavenFacade} to access maven repositories.
      */
@@ -75,11 +122,23 @@ public class PomMapperFacade implements Facade, EventListener<ReposiliteInitiali
         this.plugin = plugin;
         this.xPathFactory = XPathFactory.newInstance();
         this.documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        this.streamingPomReader = new StreamingPomReader();
+        this.mavenMetadataReader = new MavenMetadataReader();
         this.artifactsVersionsCache = artifactsVersionsCache;
+        this.compiledXPaths = new ConcurrentHashMap<>();
+        this.artifactsByGav = Map.of();
+        this.metrics = new PomMapperMetrics();
+        metrics.registerGauge("cache_artifacts", "Cached artifacts.", () -> artifactsVersionsCache.getIndices().size());
+        metrics.registerGauge("cache_entries", "Cached versions of all artifacts.",
+                () -> artifactsVersionsCache.getIndices().values().stream().mapToLong(ArtifactVersionIndex::size).sum());
+        metrics.registerGauge("cache_estimated_bytes", "Estimated heap size of all cached versions.",
+                () -> artifactsVersionsCache.getIndices().values().stream().mapToLong(ArtifactVersionIndex::estimatedBytes).sum());
     }
 
     private XPath getXPath() {
-        return xPathFactory.newXPath();
+        synchronized (xPathFactory) {
+            return xPathFactory.newXPath();
+        }
     }
 
     /**
@@ -93,12 +152,24 @@ public class PomMapperFacade implements Facade, EventListener<ReposiliteInitiali
 
     /**
      * Returns a new {@link DocumentBuilder} instance.
+     * The returned instance is not thread-safe and must not be shared between workers.
      *
      * @return The new {@link DocumentBuilder} instance.
      * @throws ParserConfigurationException If the {@link DocumentBuilderFactory} is not configured correctly.
      */
     public DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
-        return documentBuilderFactory.newDocumentBuilder();
+        synchronized (documentBuilderFactory) {
+            return documentBuilderFactory.newDocumentBuilder();
+        }
+    }
+
+    /**
+     * Returns the {@link PomMapperMetrics} of cache builds and REST API requests.
+     *
+     * @return The {@link PomMapperMetrics} of cache builds and REST API requests.
+     */
+    public PomMapperMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -110,6 +181,44 @@ public class PomMapperFacade implements Facade, EventListener<ReposiliteInitiali
         return artifactsVersionsCache;
     }
 
+    /**
+     * Compiles the xPaths of all given artifacts and replaces all previously compiled xPaths.
+     * Needs to be called whenever the settings are loaded or changed.
+     *
+     * @param artifacts The artifacts to compile the xPaths for.
+     */
+    public void compileXPaths(final List<Artifact> artifacts) {
+        final XPath xPath = getXPath();
+        final Map<Artifact, ArtifactXPaths> compiled = new HashMap<>();
+        artifacts.forEach(artifact -> compiled.put(artifact, ArtifactXPaths.compile(artifact, xPath)));
+        compiledXPaths.putAll(compiled);
+        compiledXPaths.keySet().retainAll(compiled.keySet());
+    }
+
+    /**
+     * Indexes the given artifacts by their repository and gav for {@link #findArtifact(String, Location)}.
+     * Has to be called again whenever the settings change. If several artifacts share a repository and gav,
+     * the first configured artifact is found.
+     *
+     * @param artifacts The configured artifacts.
+     */
+    public void indexArtifacts(final List<Artifact> artifacts) {
+        final Map<ArtifactKey, Artifact> indexed = new HashMap<>();
+        artifacts.forEach(artifact -> indexed.putIfAbsent(new ArtifactKey(artifact.repository(), artifact.gav()), artifact));
+        artifactsByGav = indexed;
+    }
+
+    /**
+     * Returns the compiled xPaths of the given artifact.
+     * The xPaths are compiled if they have not been compiled with the settings yet.
+     *
+     * @param artifact The artifact to get the compiled xPaths for.
+     * @return The compiled xPaths of the artifact.
+     */
+    public ArtifactXPaths getXPaths(final Artifact artifact) {
+        return compiledXPaths.computeIfAbsent(artifact, key -> ArtifactXPaths.compile(key, getXPath()));
+    }
+
     @Override
     public void onCall(final ReposiliteInitializeEvent reposiliteInitializeEvent) {
         mavenFacade = plugin.getFacade(MavenFacade.class);
@@ -142,30 +251,61 @@ public class PomMapperFacade implements Facade, EventListener<ReposiliteInitiali
     }
 
     /**
-     * Finds an artifact in the given repository with the given gav.
+     * Finds the configured artifact with the given repository and gav.
+     * Only the index of the configured artifacts is consulted, the storage is not accessed.
      *
      * @param repository The repository to search in.
      * @param gav        The gav to search for.
      * @return The matching artifact if found, null otherwise.
+     * @see #indexArtifacts(List)
      */
     @Nullable
     public Artifact findArtifact(final String repository, final Location gav) {
-        if (!hasArtifact(repository, gav)) {
+        if (repository == null || gav == null) {
             return null;
         }
-        final PomMapperPluginSettings pluginSettings = this.plugin.getConfig().get();
-        final List<Artifact> artifacts = pluginSettings.getArtifacts();
-        return artifacts.stream().filter(artifact ->
-                artifact.repository().equals(repository) && artifact.gav().equals(gav)).findAny().orElse(null);
+        return artifactsByGav.get(new ArtifactKey(repository, gav));
+    }
+
+    /**
+     * Finds the configured artifact a deployed pom.xml file belongs to.
+     * The pom is expected to be located in a version directory directly below the artifact's gav.
+     *
+     * @param repository  The repository the pom was deployed to.
+     * @param pomLocation The location of the deployed pom.xml file.
+     * @return The matching artifact if found, null otherwise.
+     */
+    @Nullable
+    public Artifact findArtifactForPom(final String repository, final Location pomLocation) {
+        if (repository == null || pomLocation == null || !pomLocation.endsWith(".pom")) {
+            return null;
+        }
+        return findArtifact(repository, pomLocation.getParent().getParent());
     }
 
     /**
      * Returns all pom.xml file locations of the artifact with the given extension.
+     * Uses the configured {@link VersionEnumeration} and falls back to listing all directories
+     * if the artifact's maven-metadata.xml is missing or inconsistent.
+     * Timestamped snapshot poms exceeding the artifact's {@link Artifact#snapshotRetention()} are skipped.
      *
      * @param artifact the artifact to get the versions for
      * @return all file locations of the artifact
      */
     public List<Location> getMavenVersions(final Artifact artifact) {
+        return getMavenVersions(artifact, new BuildStatistics());
+    }
+
+    /**
+     * Returns all pom.xml file locations of the artifact with the given extension
+     * and counts the storage calls to the given statistics.
+     *
+     * @param artifact   the artifact to get the versions for
+     * @param statistics the statistics to count the storage calls to
+     * @return all file locations of the artifact
+     * @see #getMavenVersions(Artifact)
+     */
+    public List<Location> getMavenVersions(final Artifact artifact, final BuildStatistics statistics) {
         final MavenFacade mavenFacade = plugin.getFacade(MavenFacade.class);
         final Repository repo = mavenFacade.getRepository(artifact.repository());
         if (repo == null) {
@@ -173,20 +313,113 @@ public class PomMapperFacade implements Facade, EventListener<ReposiliteInitiali
             return List.of();
         }
         final StorageProvider storageProvider = repo.getStorageProvider();
+        if (plugin.getConfig().get().getVersionEnumeration() == VersionEnumeration.METADATA) {
+            final List<Location> versionPoms = getMetadataVersions(artifact, storageProvider, statistics);
+            if (versionPoms != null) {
+                plugin.debug("maven poms found in metadata: " + versionPoms.size());
+                return retainSnapshots(artifact, versionPoms);
+            }
+            plugin.debug("Metadata of artifact \"" + artifact.id() + "\" missing or inconsistent, listing directories.");
+        }
+        return retainSnapshots(artifact, getDirectoryVersions(storageProvider, artifact, statistics));
+    }
+
+    /**
+     * Returns all pom.xml file locations of the artifact by listing all version directories,
+     * regardless of the configured {@link VersionEnumeration}, and counts the storage calls to the given statistics.
+     * Timestamped snapshot poms exceeding the artifact's {@link Artifact#snapshotRetention()} are skipped.
+     *
+     * @param artifact   the artifact to get the versions for
+     * @param statistics the statistics to count the storage calls to
+     * @return all file locations of the artifact
+     */
+    public List<Location> getListedMavenVersions(final Artifact artifact, final BuildStatistics statistics) {
+        final Repository repo = plugin.getFacade(MavenFacade.class).getRepository(artifact.repository());
+        if (repo == null) {
+            plugin.warn("Repository \"" + artifact.repository() + "\" not found.");
+            return List.of();
+        }
+        return retainSnapshots(artifact, getDirectoryVersions(repo.getStorageProvider(), artifact, statistics));
+    }
+
+    private List<Location> retainSnapshots(final Artifact artifact, final List<Location> versionPoms) {
+        final List<Location> retained = SnapshotRetention.retain(artifact, versionPoms);
+        if (retained.size() < versionPoms.size()) {
+            plugin.debug("maven poms skipped by snapshot retention: " + (versionPoms.size() - retained.size()));
+        }
+        return retained;
+    }
+
+    @Nullable
+    private List<Location> getMetadataVersions(final Artifact artifact, final StorageProvider storageProvider, final BuildStatistics statistics) {
+        statistics.storageCalls(1);
+        final Result<InputStream, ErrorResponse> metadataFile = storageProvider.getFile(artifact.gav().resolve(MavenMetadataReader.METADATA_FILE));
+        if (metadataFile.isErr()) {
+            return null;
+        }
+        final List<String> versions;
+        try (InputStream content = metadataFile.get()) {
+            versions = mavenMetadataReader.readVersions(content);
+        } catch (XMLStreamException | IOException exception) {
+            plugin.debug("Error while reading metadata of artifact \"" + artifact.id() + "\" - " + exception.getMessage());
+            return null;
+        }
+        if (versions.isEmpty() || !isMetadataConsistent(artifact, storageProvider, versions, statistics)) {
+            return null;
+        }
+        final List<Location> versionPoms = new ArrayList<>();
+        for (final String version : versions) {
+            if (!version.endsWith("-SNAPSHOT")) {
+                versionPoms.add(artifact.versionedGav(version, "pom"));
+                continue;
+            }
+            statistics.storageCalls(1);
+            final Result<List<Location>, ErrorResponse> files = storageProvider.getFiles(artifact.gav().resolve(version));
+            if (files.isErr()) {
+                return null;
+            }
+            files.get().stream().filter(loc -> loc.endsWith(".pom")).forEach(versionPoms::add);
+        }
+        return versionPoms;
+    }
+
+    /**
+     * Checks that the versions listed in the metadata match the directories of the artifact with a single listing,
+     * so stale metadata missing new versions or still listing deleted ones is not trusted.
+     */
+    private boolean isMetadataConsistent(final Artifact artifact, final StorageProvider storageProvider, final List<String> versions,
+                                         final BuildStatistics statistics) {
+        statistics.storageCalls(1);
+        final Result<List<Location>, ErrorResponse> files = storageProvider.getFiles(artifact.gav());
+        if (files.isErr()) {
+            return false;
+        }
+        final Set<String> listed = files.get().stream()
+                .map(Location::getSimpleName)
+                .filter(name -> !name.startsWith(MavenMetadataReader.METADATA_FILE))
+                .collect(Collectors.toSet());
+        return listed.equals(new HashSet<>(versions));
+    }
+
+    private List<Location> getDirectoryVersions(final StorageProvider storageProvider, final Artifact artifact, final BuildStatistics statistics) {
+        statistics.storageCalls(1);
         final Result<List<Location>, ErrorResponse> files = storageProvider.getFiles(artifact.gav());
         if (files.isErr()) {
             plugin.warn("Error while listing files: " + files.getError().getMessage());
             return List.of();
         }
-        final List<Location> versionPoms = files.get().stream()
-                .map(loc -> Map.entry(loc, storageProvider.getFileDetails(loc)))
-                .filter(entry -> entry.getValue().isOk())
-                .map(entry -> Map.entry(entry.getKey(), entry.getValue().get()))
-                .filter(entry -> entry.getValue().getType() == FileType.DIRECTORY)
-                .map(Map.Entry::getKey)
-                .flatMap(loc -> storageProvider.getFiles(loc).orElseGet(error -> List.of()).stream())
-                .filter(loc -> loc.endsWith(".pom"))
-                .toList();
+        final List<Location> versionPoms = new ArrayList<>();
+        for (final Location location : files.get()) {
+            statistics.storageCalls(1);
+            final Result<? extends FileDetails, ErrorResponse> details = storageProvider.getFileDetails(location);
+            if (details.isErr() || details.get().getType() != FileType.DIRECTORY) {
+                continue;
+            }
+            statistics.storageCalls(1);
+            storageProvider.getFiles(location).orElseGet(error -> List.of()).stream()
+                    .filter(loc -> loc.endsWith(".pom"))
+                    .forEach(versionPoms::add);
+        }
         plugin.debug("maven poms found: " + versionPoms.size());
         return versionPoms;
     }
@@ -195,56 +428,213 @@ public class PomMapperFacade implements Facade, EventListener<ReposiliteInitiali
      * Read all versions known to {@link MavenFacade} for a given artifact.
      * Maps all versions according to the configured XPath expression in the artifact
      * settings to create {@link PomVersionedEntry}s.
+     * Safe to be called concurrently for different artifacts, every call uses its own
+     * {@link DocumentBuilder} instance and the precompiled {@link ArtifactXPaths} of the artifact.
+     *
+     * Known entries are reused without reading their pom again as long as the pom's fingerprint did not change.
+     * Poms that cannot be read or parsed are left out and counted as failed, so they are read again on the next update.
      *
-     * @param artifact The artifact to map versions for.
+     * @param artifact   The artifact to map versions for.
+     * @param known      The already known entries of the artifact by their pom location.
+     * @param statistics The statistics to count the read and reused poms and storage calls to.
      * @return a list of {@link PomVersionedEntry} containing all known versions of the artifact
      * or an empty list if the artifact does not exist.
-     * @throws XPathExpressionException     if the configured XPath expression is invalid.
      * @throws ParserConfigurationException if the {@link DocumentBuilderFactory} is not configured correctly.
      */
-    protected List<PomVersionedEntry> getMappedVersions(final Artifact artifact) throws XPathExpressionException, ParserConfigurationException {
+    protected List<PomVersionedEntry> getMappedVersions(final Artifact artifact, final Map<Location, PomVersionedEntry> known,
+                                                        final BuildStatistics statistics) throws ParserConfigurationException {
         final Location gav = artifact.gav();
         final Repository repository = mavenFacade.getRepository(artifact.repository());
+        statistics.storageCalls(1);
         if (repository == null || !hasArtifact(artifact.repository(), gav)) {
             return List.of();
         }
         final DocumentBuilder documentBuilder = getDocumentBuilder();
+        final ArtifactXPaths xPaths = getXPaths(artifact);
         final List<PomVersionedEntry> versions = new ArrayList<>();
-        final List<Location> pomLocations = getMavenVersions(artifact);
+        final List<Location> pomLocations = getMavenVersions(artifact, statistics);
+        final String signature = CacheSnapshot.signature(artifact);
+        final Map<Artifact, Boolean> reusable = new HashMap<>();
+        int reused = 0;
         for (final Location pomLocation : pomLocations) {
-            final PomVersionedEntry entry = readEntry(artifact, pomLocation, documentBuilder);
-            versions.add(entry);
+            final String fingerprint = getFingerprint(repository, pomLocation, statistics);
+            final PomVersionedEntry knownEntry = known.get(pomLocation);
+            if (knownEntry != null && fingerprint != null && fingerprint.equals(knownEntry.fingerprint())
+                    && reusable.computeIfAbsent(knownEntry.artifact(), other -> signature.equals(CacheSnapshot.signature(other)))) {
+                versions.add(artifactsVersionsCache.getInterner().intern(knownEntry.withArtifact(artifact)));
+                statistics.skipped();
+                reused++;
+                continue;
+            }
+            final PomVersionedEntry entry = readEntry(artifact, pomLocation, fingerprint, documentBuilder, xPaths, statistics);
+            if (entry != null) {
+                versions.add(entry);
+            }
         }
+        plugin.debug("Skipped " + reused + " of " + pomLocations.size() + " unchanged poms of artifact \"" + artifact.id() + "\"");
         return versions;
     }
 
-    private PomVersionedEntry readEntry(final Artifact artifact, final Location pomLocation, final DocumentBuilder documentBuilder) {
+    /**
+     * Reads a single pom.xml of the given artifact and maps it according to the configured XPath expressions
+     * in the artifact settings to create a {@link PomVersionedEntry}.
+     *
+     * @param artifact    The artifact the pom belongs to.
+     * @param pomLocation The location of the pom.xml file.
+     * @return the {@link PomVersionedEntry} of the pom or null if the pom could not be read or parsed.
+     * @throws ParserConfigurationException if the {@link DocumentBuilderFactory} is not configured correctly.
+     */
+    @Nullable
+    protected PomVersionedEntry getMappedVersion(final Artifact artifact, final Location pomLocation) throws ParserConfigurationException {
+        return getMappedVersion(artifact, pomLocation, new BuildStatistics());
+    }
+
+    /**
+     * Reads a single pom.xml of the given artifact like {@link #getMappedVersion(Artifact, Location)}
+     * and counts the storage calls to the given statistics.
+     *
+     * @param artifact    The artifact the pom belongs to.
+     * @param pomLocation The location of the pom.xml file.
+     * @param statistics  The statistics to count the storage calls to.
+     * @return the {@link PomVersionedEntry} of the pom or null if the pom could not be read or parsed.
+     * @throws ParserConfigurationException if the {@link DocumentBuilderFactory} is not configured correctly.
+     */
+    @Nullable
+    protected PomVersionedEntry getMappedVersion(final Artifact artifact, final Location pomLocation, final BuildStatistics statistics)
+            throws ParserConfigurationException {
+        final Repository repository = mavenFacade.getRepository(artifact.repository());
+        if (repository == null) {
+            return null;
+        }
+        return readEntry(artifact, pomLocation, getFingerprint(repository, pomLocation, statistics), getDocumentBuilder(), getXPaths(artifact), statistics);
+    }
+
+    /**
+     * Returns the fingerprint of a pom file, identifying its current content without reading it.
+     * The fingerprint is based on the configured {@link FingerprintSource}.
+     *
+     * @param repository  The repository of the pom.
+     * @param pomLocation The location of the pom.
+     * @return The fingerprint of the pom or null if it could not be determined.
+     */
+    @Nullable
+    public String getFingerprint(final Repository repository, final Location pomLocation) {
+        return getFingerprint(repository, pomLocation, new BuildStatistics());
+    }
+
+    @Nullable
+    private String getFingerprint(final Repository repository, final Location pomLocation, final BuildStatistics statistics) {
+        final StorageProvider storageProvider = repository.getStorageProvider();
+        if (plugin.getConfig().get().getFingerprintSource() == FingerprintSource.CHECKSUM) {
+            statistics.storageCalls(1);
+            final String checksum = getChecksum(storageProvider, pomLocation);
+            if (checksum != null) {
+                return "sha1:" + checksum;
+            }
+        }
+        statistics.storageCalls(2);
+        final Result<FileTime, ErrorResponse> lastModified = storageProvider.getLastModifiedTime(pomLocation);
+        final Result<Long, ErrorResponse> size = storageProvider.getFileSize(pomLocation);
+        if (lastModified.isErr() || size.isErr()) {
+            return null;
+        }
+        return "modified:" + lastModified.get().toMillis() + ":" + size.get();
+    }
+
+    @Nullable
+    private String getChecksum(final StorageProvider storageProvider, final Location pomLocation) {
+        final Result<InputStream, ErrorResponse> checksumFile = storageProvider.getFile(pomLocation.getParent().resolve(pomLocation.getSimpleName() + ".sha1"));
+        if (checksumFile.isErr()) {
+            return null;
+        }
+        try (InputStream content = checksumFile.get()) {
+            final String checksum = new String(content.readNBytes(SHA1_LENGTH), StandardCharsets.US_ASCII).toLowerCase(Locale.ROOT);
+            return SHA1.matcher(checksum).matches() ? checksum : null;
+        } catch (final IOException e) {
+            plugin.debug("Error while reading checksum of pom \"" + pomLocation + "\" - " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Nullable
+    private PomVersionedEntry readEntry(final Artifact artifact, final Location pomLocation, @Nullable final String fingerprint,
+                                        final DocumentBuilder documentBuilder, final ArtifactXPaths xPaths, final BuildStatistics statistics) {
+        statistics.storageCalls(1);
+        ResolvedDocument pomFile = findPom(artifact, pomLocation);
+        if (pomFile == null) {
+            statistics.failed();
+            return null;
+        }
+        Map<String, String> xPathVersions = null;
+        if (xPaths.isStreamable() && plugin.getConfig().get().isStreamingExtraction()) {
+            xPathVersions = streamValues(artifact, pomFile, xPaths);
+            if (xPathVersions == null) {
+                statistics.storageCalls(1);
+                pomFile = findPom(artifact, pomLocation);
+                if (pomFile == null) {
+                    statistics.failed();
+                    return null;
+                }
+            }
+        }
+        if (xPathVersions == null) {
+            xPathVersions = parseValues(artifact, pomFile, documentBuilder, xPaths);
+            if (xPathVersions == null) {
+                statistics.failed();
+                return null;
+            }
+        }
+
+        final String groupVersion = pomLocation.getParent().getSimpleName();
+        final String rawName = pomLocation.getSimpleName();
+        final String mavenVersion = rawName.substring(rawName.indexOf('-') + 1, rawName.lastIndexOf('.'));
+        statistics.parsed();
+        return new PomVersionedEntry(artifact, groupVersion, mavenVersion, xPathVersions, pomLocation, fingerprint,
+                artifactsVersionsCache.getInterner());
+    }
+
+    @Nullable
+    private ResolvedDocument findPom(final Artifact artifact, final Location pomLocation) {
         final Result<ResolvedDocument, ErrorResponse> pomFile = mavenFacade.findFile(new LookupRequest(null, artifact.repository(), pomLocation));
         if (pomFile.isErr()) {
             plugin.warn(pomFile.getError().getMessage());
             return null;
         }
-        final Map<String, String> xPathVersions = new HashMap<>();
-        final XPath xPath = getXPath();
-        try {
-            final Document parse = documentBuilder.parse(pomFile.get().getContent());
-            for (final XPathEntry entry : artifact.versionXPath()) {
-                try {
-                    xPathVersions.put(entry.id(), entry.parse(xPath, parse));
-                } catch (final XPathExpressionException exception) {
-                    plugin.warn("Error while reading xPath \"" + entry.id() + "\" in artifact \"" + artifact.id() + "\" - " + exception.getMessage());
-                    plugin.getLogger().exception(exception);
-                }
-            }
+        return pomFile.get();
+    }
+
+    @Nullable
+    private Map<String, String> streamValues(final Artifact artifact, final ResolvedDocument pomFile, final ArtifactXPaths xPaths) {
+        try (InputStream content = pomFile.getContent()) {
+            return xPaths.extract(streamingPomReader, content);
+        } catch (XMLStreamException | IOException exception) {
+            plugin.debug("Streaming pom of artifact \"" + artifact.id() + "\" failed, falling back to DOM. " + exception.getMessage());
+            return null;
+        }
+    }
+
+    @Nullable
+    private Map<String, String> parseValues(final Artifact artifact, final ResolvedDocument pomFile, final DocumentBuilder documentBuilder,
+                                            final ArtifactXPaths xPaths) {
+        try (InputStream content = pomFile.getContent()) {
+            final Document parse = documentBuilder.parse(content);
+            return xPaths.evaluate(parse);
+        } catch (final XPathExpressionException exception) {
+            plugin.warn("Error while reading xPaths in artifact \"" + artifact.id() + "\" - " + exception.getMessage());
+            plugin.getLogger().exception(exception);
         } catch (SAXException | IOException | IllegalStateException exception) {
             plugin.warn("Error while generating pom mappings. " + exception.getMessage());
             plugin.getLogger().exception(exception);
         }
+        return null;
+    }
 
-        final Location jarLocation = pomLocation.replace(".pom", ".jar");
-        final String groupVersion = pomLocation.getParent().getSimpleName();
-        final String rawName = pomLocation.getSimpleName();
-        final String mavenVersion = rawName.substring(rawName.indexOf('-') + 1, rawName.lastIndexOf('.'));
-        return new PomVersionedEntry(artifact, groupVersion, mavenVersion, xPathVersions, jarLocation);
+    /**
+     * The key of a configured artifact in the index of {@link #findArtifact(String, Location)}.
+     *
+     * @param repository the repository of the artifact
+     * @param gav        the gav of the artifact
+     */
+    private record ArtifactKey(String repository, Location gav) {
     }
 }
@@ -0,0 +1,253 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact immutable map of the values extracted by xPaths from a single pom.
+ * The xPath ids are stored once in a {@link Schema} shared by all entries with the same ids,
+ * each entry only holds an array of its values indexed by the ordinal of their xPath id.
+ * Schemas and equal values together with their pre-parsed {@link ComparableVersion} are shared
+ * between all entries of the same {@link EntryInterner}.
+ */
+public final class PomValues extends AbstractMap<String, String> {
+
+    /**
+     * Values without any xPath.
+     */
+    public static final PomValues EMPTY = new PomValues(Schema.EMPTY, new Value[0]);
+
+    /**
+     * The estimated size of the values object and its array without elements.
+     */
+    private static final long VALUES_BYTES = 40;
+
+    /**
+     * The estimated size of a reference in the values array.
+     */
+    private static final long REFERENCE_BYTES = 4;
+
+    /**
+     * The schema of the values.
+     */
+    private final Schema schema;
+
+    /**
+     * The values by the ordinal of their xPath id in the schema, null if the xPath extracted no value.
+     */
+    private final Value[] values;
+
+    private PomValues(final Schema schema, final Value[] values) {
+        super();
+        this.schema = schema;
+        this.values = values;
+    }
+
+    /**
+     * Creates compact values from the given extracted values.
+     *
+     * @param extracted the extracted values by their xPath id, values may be null
+     * @param interner  the interner to share the schema and values with
+     * @return the compact values retaining the iteration order of the extracted values
+     */
+    public static PomValues of(final Map<String, String> extracted, final EntryInterner interner) {
+        if (extracted instanceof final PomValues compact) {
+            return compact.intern(interner);
+        }
+        if (extracted.isEmpty()) {
+            return EMPTY;
+        }
+        final String[] ids = extracted.keySet().toArray(new String[0]);
+        final Schema schema = interner.schema(List.of(ids));
+        final Value[] values = new Value[ids.length];
+        for (int ordinal = 0; ordinal < ids.length; ordinal++) {
+            final String value = extracted.get(ids[ordinal]);
+            values[ordinal] = value == null ? null : interner.value(value, null);
+        }
+        return new PomValues(schema, values);
+    }
+
+    /**
+     * Returns these values sharing their schema and values with the given interner.
+     *
+     * @param interner the interner to share the schema and values with
+     * @return these values if they are already shared, otherwise a copy with shared schema and values
+     */
+    /*default*/ PomValues intern(final EntryInterner interner) {
+        if (values.length == 0) {
+            return this;
+        }
+        final Schema shared = interner.schema(List.of(schema.ids));
+        boolean changed = shared != schema;
+        final Value[] sharedValues = new Value[values.length];
+        for (int ordinal = 0; ordinal < values.length; ordinal++) {
+            final Value value = values[ordinal];
+            sharedValues[ordinal] = value == null ? null : interner.value(value.text(), value);
+            changed = changed || sharedValues[ordinal] != value;
+        }
+        return changed ? new PomValues(shared, sharedValues) : this;
+    }
+
+    /**
+     * Returns the pre-parsed value extracted by the given xPath.
+     *
+     * @param entryId the id of the xPath
+     * @return the parsed value or null if the xPath extracted no value
+     */
+    @Nullable
+    public ComparableVersion comparable(final String entryId) {
+        final Value value = find(entryId);
+        return value == null ? null : value.parsed();
+    }
+
+    @Nullable
+    private Value find(@Nullable final Object entryId) {
+        if (entryId == null) {
+            return null;
+        }
+        final Integer ordinal = schema.ordinals.get(entryId);
+        return ordinal == null ? null : values[ordinal];
+    }
+
+    /**
+     * Estimates the retained heap size of these values, not counting the shared schema and values.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimatedBytes() {
+        return VALUES_BYTES + values.length * REFERENCE_BYTES;
+    }
+
+    @Override
+    @Nullable
+    public String get(final Object key) {
+        final Value value = find(key);
+        return value == null ? null : value.text();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public void forEach(final BiConsumer<? super String, ? super String> action) {
+        for (int ordinal = 0; ordinal < values.length; ordinal++) {
+            if (values[ordinal] != null) {
+                action.accept(schema.ids[ordinal], values[ordinal].text());
+            }
+        }
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (final Value value : values) {
+                    if (value != null) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Iterates the xPath ids with an extracted value in the order of the schema.
+     */
+    private final class EntryIterator implements Iterator<Entry<String, String>> {
+
+        /**
+         * The ordinal of the next value.
+         */
+        private int next;
+
+        private EntryIterator() {
+            this.next = skipMissing(0);
+        }
+
+        private int skipMissing(final int from) {
+            int ordinal = from;
+            while (ordinal < values.length && values[ordinal] == null) {
+                ordinal++;
+            }
+            return ordinal;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length;
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Entry<String, String> entry = new SimpleImmutableEntry<>(schema.ids[next], values[next].text());
+            next = skipMissing(next + 1);
+            return entry;
+        }
+    }
+
+    /**
+     * The xPath ids shared by all values with the same ids in the same order.
+     */
+    /*default*/ static final class Schema {
+
+        /**
+         * The schema without any xPath.
+         */
+        private static final Schema EMPTY = new Schema(List.of());
+
+        /**
+         * The xPath ids by their ordinal.
+         */
+        private final String[] ids;
+
+        /**
+         * The ordinals by their xPath id.
+         */
+        private final Map<String, Integer> ordinals;
+
+        /*default*/ Schema(final List<String> ids) {
+            this.ids = ids.toArray(new String[0]);
+            final Map<String, Integer> ordinals = new HashMap<>();
+            for (int ordinal = 0; ordinal < this.ids.length; ordinal++) {
+                ordinals.put(this.ids[ordinal], ordinal);
+            }
+            this.ordinals = Map.copyOf(ordinals);
+        }
+    }
+
+    /**
+     * An extracted value with its pre-parsed version.
+     *
+     * @param text   the extracted value
+     * @param parsed the parsed value used for comparisons
+     */
+    /*default*/ record Value(String text, ComparableVersion parsed) {
+
+        /*default*/ Value(final String text) {
+            this(text, new ComparableVersion(text));
+        }
+    }
+}
@@ -3,20 +3,104 @@ package org.betonquest.reposilite.mapper.integration;
 import com.reposilite.storage.api.Location;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 
 /**
  * Represents a pom versioned entry in the maven repository.
  *
- * @param group       the group of the artifact
- * @param artifact    the versioned artifact
- * @param maven       the maven version
- * @param pom         the versions defined in the pom and extracted from the artifact by xpaths
- * @param jarLocation the location of the jar file related to the pom
+ * @param group        the group of the artifact
+ * @param artifact     the versioned artifact
+ * @param maven        the maven version
+ * @param pom          the versions defined in the pom and extracted from the artifact by xpaths with their parsed values
+ * @param pomLocation  the location of the pom file the entry was read from
+ * @param fingerprint  the fingerprint of the pom file when it was read or null if unknown
+ * @param groupVersion the parsed group version used for comparisons, shared by all entries of the group
+ * @param mavenVersion the parsed maven version used for comparisons
  */
-public record PomVersionedEntry(Artifact artifact, String group, String maven, Map<String, String> pom,
-                                Location jarLocation) {
+public record PomVersionedEntry(Artifact artifact, String group, String maven, PomValues pom,
+                                Location pomLocation, @Nullable String fingerprint, DefaultArtifactVersion groupVersion,
+                                DefaultArtifactVersion mavenVersion) {
+
+    /**
+     * The estimated size of the entry itself.
+     */
+    private static final long ENTRY_BYTES = 40;
+
+    /**
+     * The estimated size of a parsed {@link DefaultArtifactVersion}.
+     */
+    private static final long PARSED_VERSION_BYTES = 256;
+
+    /**
+     * The estimated size of a {@link Location} without its path.
+     */
+    private static final long LOCATION_BYTES = 16;
+
+    /**
+     * The estimated size of a string without its characters.
+     */
+    private static final long STRING_BYTES = 40;
+
+    /**
+     * Creates a new entry and parses the group version, the maven version and the values of the pom once for all later comparisons.
+     * The group, the parsed group version and equal values of the pom are shared with other entries of the interner.
+     *
+     * @param group       the group of the artifact
+     * @param artifact    the versioned artifact
+     * @param maven       the maven version
+     * @param pom         the versions defined in the pom and extracted from the artifact by xpaths
+     * @param pomLocation the location of the pom file the entry was read from
+     * @param fingerprint the fingerprint of the pom file when it was read or null if unknown
+     * @param interner    the interner to share parts of the entry with
+     */
+    public PomVersionedEntry(final Artifact artifact, final String group, final String maven, final Map<String, String> pom,
+                             final Location pomLocation, @Nullable final String fingerprint, final EntryInterner interner) {
+        this(artifact, interner.group(group), maven, PomValues.of(pom, interner), pomLocation, fingerprint,
+                interner.groupVersion(group), new DefaultArtifactVersion(maven));
+    }
+
+    /**
+     * Returns this entry belonging to the given artifact, e.g. to reuse it after unrelated settings of the artifact changed.
+     *
+     * @param artifact the artifact the entry belongs to
+     * @return this entry if it already belongs to the given artifact, otherwise a copy belonging to it
+     */
+    public PomVersionedEntry withArtifact(final Artifact artifact) {
+        if (artifact.equals(this.artifact)) {
+            return this;
+        }
+        return new PomVersionedEntry(artifact, group, maven, pom, pomLocation, fingerprint, groupVersion, mavenVersion);
+    }
+
+    /**
+     * Estimates the retained heap size of this entry, not counting the shared artifact, group, group version and pom values.
+     * Assumes compressed references and compact strings, the estimate is meant for monitoring only.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimatedBytes() {
+        long bytes = ENTRY_BYTES + PARSED_VERSION_BYTES + stringBytes(maven)
+                + LOCATION_BYTES + stringBytes(pomLocation.toString()) + pom.estimatedBytes();
+        if (fingerprint != null) {
+            bytes += stringBytes(fingerprint);
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(@Nullable final String value) {
+        return value == null ? 0 : STRING_BYTES + value.length();
+    }
+
+    /**
+     * Returns the location of the jar file related to the pom.
+     *
+     * @return the location of the jar file
+     */
+    public Location jarLocation() {
+        return pomLocation.replace(".pom", ".jar");
+    }
 
     /**
      * Checks if the group version is a snapshot version.
@@ -35,10 +119,18 @@ public record PomVersionedEntry(Artifact artifact, String group, String maven, M
      * @return true if the given version is newer, false otherwise
      */
     public boolean isNewerThan(final String version) {
-        final DefaultArtifactVersion foreignVersion = new DefaultArtifactVersion(version);
-        final DefaultArtifactVersion localVersion = new DefaultArtifactVersion(maven);
-        final DefaultArtifactVersion groupVersion = new DefaultArtifactVersion(group);
-        final int preCompare = groupVersion.compareTo(foreignVersion);
-        return preCompare == 0 ? localVersion.compareTo(foreignVersion) > 0 : preCompare > 0;
+        return isNewerThan(new DefaultArtifactVersion(version));
+    }
+
+    /**
+     * Checks if the given version is newer than the current group version
+     * using the pre-parsed versions of this entry.
+     *
+     * @param version the version to compare to
+     * @return true if the given version is newer, false otherwise
+     */
+    public boolean isNewerThan(final DefaultArtifactVersion version) {
+        final int preCompare = groupVersion.compareTo(version);
+        return preCompare == 0 ? mavenVersion.compareTo(version) > 0 : preCompare > 0;
     }
 }
@@ -0,0 +1,182 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Schedules cache rebuilds in the background, coalescing bursts of triggers.
+ * Every trigger restarts the quiet window of its rebuild, the rebuild runs once no further trigger arrived
+ * within the window, but at the latest once the maximum delay after its first trigger passed,
+ * so a steady stream of triggers cannot postpone it forever. All rebuilds run one after another on a single thread, so there is never more than
+ * one rebuild per artifact at a time. Triggers arriving while a rebuild runs are scheduled for afterwards.
+ */
+public class RebuildScheduler {
+
+    /**
+     * The key of the pending full rebuild.
+     */
+    private static final String FULL_REBUILD = "";
+
+    /**
+     * The single thread running all rebuilds.
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Supplies the quiet window in milliseconds.
+     */
+    private final LongSupplier quietWindow;
+
+    /**
+     * Supplies the maximum delay in milliseconds between the first trigger and the rebuild.
+     */
+    private final LongSupplier maxDelay;
+
+    /**
+     * The full rebuild of all artifacts.
+     */
+    private final Runnable fullRebuild;
+
+    /**
+     * The incremental update of an artifact with the given poms.
+     */
+    private final BiConsumer<Artifact, Set<Location>> artifactUpdate;
+
+    /**
+     * The pending rebuilds by artifact config id, the full rebuild by {@link #FULL_REBUILD}.
+     */
+    private final Map<String, PendingRebuild> pending;
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param quietWindow    supplies the quiet window in milliseconds
+     * @param maxDelay       supplies the maximum delay in milliseconds between the first trigger and the rebuild
+     * @param fullRebuild    the full rebuild of all artifacts
+     * @param artifactUpdate the incremental update of an artifact with the given poms
+     */
+    public RebuildScheduler(final LongSupplier quietWindow, final LongSupplier maxDelay, final Runnable fullRebuild,
+                            final BiConsumer<Artifact, Set<Location>> artifactUpdate) {
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "PomMapper-Rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.quietWindow = quietWindow;
+        this.maxDelay = maxDelay;
+        this.fullRebuild = fullRebuild;
+        this.artifactUpdate = artifactUpdate;
+        this.pending = new HashMap<>();
+    }
+
+    /**
+     * Schedules a full rebuild of all artifacts.
+     */
+    public void scheduleFullRebuild() {
+        schedule(FULL_REBUILD, null, null);
+    }
+
+    /**
+     * Schedules an incremental update of the artifact with the given pom.
+     * Poms of the same artifact triggered within the quiet window are updated together.
+     *
+     * @param artifact    the artifact the pom belongs to
+     * @param pomLocation the location of the changed pom
+     */
+    public void schedulePomUpdate(final Artifact artifact, final Location pomLocation) {
+        schedule(artifact.id(), artifact, pomLocation);
+    }
+
+    /**
+     * Runs the given task on the rebuild thread as soon as possible without a quiet window.
+     *
+     * @param task the task to run
+     */
+    public void runInBackground(final Runnable task) {
+        executor.execute(task);
+    }
+
+    private synchronized void schedule(final String key, @Nullable final Artifact artifact, @Nullable final Location pomLocation) {
+        final long now = System.nanoTime();
+        PendingRebuild rebuild = pending.get(key);
+        if (rebuild == null) {
+            rebuild = new PendingRebuild(artifact, new LinkedHashSet<>(), now);
+            pending.put(key, rebuild);
+        } else {
+            rebuild.future.cancel(false);
+        }
+        if (pomLocation != null) {
+            rebuild.poms.add(pomLocation);
+        }
+        final long remaining = TimeUnit.MILLISECONDS.toNanos(maxDelay.getAsLong()) - (now - rebuild.firstTrigger);
+        final long delay = Math.min(TimeUnit.MILLISECONDS.toNanos(quietWindow.getAsLong()), remaining);
+        rebuild.future = executor.schedule(() -> run(key), Math.max(0, delay), TimeUnit.NANOSECONDS);
+    }
+
+    private void run(final String key) {
+        final PendingRebuild rebuild;
+        synchronized (this) {
+            rebuild = pending.remove(key);
+        }
+        if (rebuild == null) {
+            return;
+        }
+        if (rebuild.artifact == null) {
+            fullRebuild.run();
+        } else {
+            artifactUpdate.accept(rebuild.artifact, rebuild.poms);
+        }
+    }
+
+    /**
+     * Stops the scheduler, pending rebuilds are discarded.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A rebuild waiting for its quiet window to pass.
+     */
+    private static final class PendingRebuild {
+
+        /**
+         * The artifact to update or null for a full rebuild.
+         */
+        @Nullable
+        private final Artifact artifact;
+
+        /**
+         * The poms to update.
+         */
+        private final Set<Location> poms;
+
+        /**
+         * The time in nanoseconds of the first trigger of the rebuild.
+         */
+        private final long firstTrigger;
+
+        /**
+         * The scheduled execution of the rebuild.
+         */
+        private ScheduledFuture<?> future;
+
+        private PendingRebuild(@Nullable final Artifact artifact, final Set<Location> poms, final long firstTrigger) {
+            this.artifact = artifact;
+            this.poms = poms;
+            this.firstTrigger = firstTrigger;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.betonquest.reposilite.mapper.integration;
+
+/**
+ * The result of reconciling the cached versions of a single artifact with its storage.
+ *
+ * @param artifactConfigId the artifact config id
+ * @param added            the number of poms found in the storage and added to the cache
+ * @param removed          the number of poms missing in the storage and removed from the cache
+ * @param storageCalls     the number of calls to the storage of the repository
+ */
+public record ReconcileResult(String artifactConfigId, int added, int removed, int storageCalls) {
+
+    /**
+     * Checks if the cached versions changed.
+     *
+     * @return true if poms were added or removed, false otherwise
+     */
+    public boolean isChanged() {
+        return added > 0 || removed > 0;
+    }
+}
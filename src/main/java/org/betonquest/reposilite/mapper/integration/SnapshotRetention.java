@@ -0,0 +1,91 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Limits the timestamped poms of each snapshot version to the latest builds
+ * as configured by {@link Artifact#snapshotRetention()}.
+ * Only the pom locations are inspected, so skipped poms are never fetched.
+ */
+public final class SnapshotRetention {
+
+    /**
+     * The suffix of snapshot version directories.
+     */
+    private static final String SNAPSHOT_SUFFIX = "-SNAPSHOT";
+
+    /**
+     * The timestamp and build number of a timestamped snapshot pom, e.g. {@code -20240101.123456-5.pom}.
+     */
+    private static final Pattern TIMESTAMP = Pattern.compile("-(\\d{8}\\.\\d{6})-(\\d+)\\.pom$");
+
+    /**
+     * Orders timestamped poms from the latest to the oldest build.
+     */
+    private static final Comparator<Build> LATEST_FIRST = Comparator
+            .comparing(Build::timestamp)
+            .thenComparingLong(Build::number)
+            .reversed();
+
+    private SnapshotRetention() {
+    }
+
+    /**
+     * Returns the given pom locations with only the latest timestamped poms of each snapshot version retained.
+     * Poms of releases and snapshot poms without a timestamp are always retained.
+     *
+     * @param artifact     the artifact defining the retention
+     * @param pomLocations the pom locations of the artifact
+     * @return the retained pom locations in their original order
+     */
+    public static List<Location> retain(final Artifact artifact, final List<Location> pomLocations) {
+        final int retention = artifact.snapshotRetention();
+        if (retention <= 0) {
+            return pomLocations;
+        }
+        final Map<Location, List<Build>> snapshotBuilds = new LinkedHashMap<>();
+        for (final Location pomLocation : pomLocations) {
+            final Location versionDirectory = pomLocation.getParent();
+            if (versionDirectory == null || !versionDirectory.getSimpleName().endsWith(SNAPSHOT_SUFFIX)) {
+                continue;
+            }
+            final Matcher matcher = TIMESTAMP.matcher(pomLocation.getSimpleName());
+            if (matcher.find()) {
+                snapshotBuilds.computeIfAbsent(versionDirectory, directory -> new ArrayList<>())
+                        .add(new Build(pomLocation, matcher.group(1), Long.parseLong(matcher.group(2))));
+            }
+        }
+        final Set<Location> skipped = new HashSet<>();
+        for (final List<Build> builds : snapshotBuilds.values()) {
+            if (builds.size() > retention) {
+                builds.sort(LATEST_FIRST);
+                builds.subList(retention, builds.size()).forEach(build -> skipped.add(build.pomLocation()));
+            }
+        }
+        if (skipped.isEmpty()) {
+            return pomLocations;
+        }
+        return pomLocations.stream().filter(pomLocation -> !skipped.contains(pomLocation)).toList();
+    }
+
+    /**
+     * A timestamped snapshot build.
+     *
+     * @param pomLocation the location of the build's pom
+     * @param timestamp   the timestamp of the build as {@code yyyyMMdd.HHmmss}
+     * @param number      the build number
+     */
+    private record Build(Location pomLocation, String timestamp, long number) {
+    }
+}
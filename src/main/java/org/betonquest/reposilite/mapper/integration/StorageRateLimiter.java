@@ -0,0 +1,55 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Limits the rate of storage calls of background work, so it never competes with regular downloads.
+ * Calls need to be acquired before they are made, the caller sleeps until the calls fit into the configured rate.
+ */
+public final class StorageRateLimiter {
+
+    /**
+     * Supplies the maximum number of storage calls per second.
+     */
+    private final IntSupplier callsPerSecond;
+
+    /**
+     * The time in nanoseconds from which further calls are within the rate again.
+     */
+    private long nextFree;
+
+    /**
+     * Creates a new rate limiter.
+     *
+     * @param callsPerSecond supplies the maximum number of storage calls per second, zero or negative for no limit
+     */
+    public StorageRateLimiter(final IntSupplier callsPerSecond) {
+        this.callsPerSecond = callsPerSecond;
+        this.nextFree = System.nanoTime();
+    }
+
+    /**
+     * Acquires the given number of storage calls about to be made and sleeps until they are within the rate.
+     * Returns early if the thread is interrupted, keeping the interrupt flag set.
+     *
+     * @param calls the number of storage calls about to be made
+     */
+    public synchronized void acquire(final int calls) {
+        final int rate = callsPerSecond.getAsInt();
+        if (rate <= 0 || calls <= 0) {
+            return;
+        }
+        final long now = System.nanoTime();
+        final long granted = Math.max(nextFree, now);
+        nextFree = granted + calls * TimeUnit.SECONDS.toNanos(1) / rate;
+        final long wait = granted - now;
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.betonquest.reposilite.mapper.settings.Artifact;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Periodically reconciles the cache with the storage in the background, see
+ * {@link ArtifactsVersionsCache#reconcile(Artifact, BuildStatistics)}.
+ * Each pass reconciles the artifacts one after another on a single thread and limits its storage calls,
+ * so it never competes with regular downloads. Passes only run once the cache is warm.
+ */
+public class StorageReconciler {
+
+    /**
+     * The delay in seconds before the interval is checked again while reconciling is disabled.
+     */
+    private static final long DISABLED_RECHECK_SECONDS = 60;
+
+    /**
+     * The single thread running all passes.
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Supplies the interval between passes in seconds, zero or negative to disable reconciling.
+     */
+    private final LongSupplier interval;
+
+    /**
+     * Supplies the artifacts to reconcile.
+     */
+    private final Supplier<List<Artifact>> artifacts;
+
+    /**
+     * The cache to reconcile.
+     */
+    private final ArtifactsVersionsCache cache;
+
+    /**
+     * The rate limiter shared by all passes.
+     */
+    private final StorageRateLimiter rateLimiter;
+
+    /**
+     * Receives the results of the artifacts that changed in a pass.
+     */
+    private final Consumer<List<ReconcileResult>> onReconciled;
+
+    /**
+     * The logger for failed passes.
+     */
+    private final Consumer<String> warning;
+
+    /**
+     * Creates a new reconciler.
+     *
+     * @param interval       supplies the interval between passes in seconds, zero or negative to disable reconciling
+     * @param callsPerSecond supplies the maximum number of storage calls per second, zero or negative for no limit
+     * @param artifacts      supplies the artifacts to reconcile
+     * @param cache          the cache to reconcile
+     * @param onReconciled   receives the results of the artifacts that changed in a pass
+     * @param warning        the logger for failed passes
+     */
+    public StorageReconciler(final LongSupplier interval, final IntSupplier callsPerSecond, final Supplier<List<Artifact>> artifacts,
+                             final ArtifactsVersionsCache cache, final Consumer<List<ReconcileResult>> onReconciled,
+                             final Consumer<String> warning) {
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "PomMapper-Reconcile");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.interval = interval;
+        this.artifacts = artifacts;
+        this.cache = cache;
+        this.rateLimiter = new StorageRateLimiter(callsPerSecond);
+        this.onReconciled = onReconciled;
+        this.warning = warning;
+    }
+
+    /**
+     * Schedules the first pass after the configured interval.
+     */
+    public void start() {
+        scheduleNext();
+    }
+
+    private void scheduleNext() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        final long seconds = interval.getAsLong();
+        if (seconds <= 0) {
+            executor.schedule(this::scheduleNext, DISABLED_RECHECK_SECONDS, TimeUnit.SECONDS);
+        } else {
+            executor.schedule(this::runPass, seconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private void runPass() {
+        try {
+            if (interval.getAsLong() > 0 && cache.isWarm()) {
+                reconcileAll();
+            }
+        } catch (final RuntimeException e) {
+            warning.accept("Reconciling the cache with the storage failed - " + e);
+        } finally {
+            scheduleNext();
+        }
+    }
+
+    private void reconcileAll() {
+        final List<ReconcileResult> changed = new ArrayList<>();
+        for (final Artifact artifact : artifacts.get()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            try {
+                final ReconcileResult result = cache.reconcile(artifact, new BuildStatistics(rateLimiter));
+                if (result.isChanged()) {
+                    changed.add(result);
+                }
+            } catch (final RuntimeException e) {
+                warning.accept("Reconciling artifact \"" + artifact.id() + "\" with the storage failed - " + e);
+            }
+        }
+        onReconciled.accept(changed);
+    }
+
+    /**
+     * Stops the reconciler, a running pass is interrupted.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,120 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extracts values of simple absolute element paths like {@code /project/properties/foo.version} from a pom
+ * using StAX without building a DOM.
+ * The pom is only read until all values have been found.
+ * The extracted values are identical to the string values XPath evaluates for the same paths on a
+ * non-namespace-aware DOM: the concatenated text of the first matching element, or an empty string.
+ */
+public final class StreamingPomReader {
+
+    /**
+     * The factory to create {@link XMLStreamReader}s with.
+     */
+    private final XMLInputFactory inputFactory;
+
+    /**
+     * Creates a new reader with a secure {@link XMLInputFactory} that does not resolve DTDs or external entities.
+     */
+    public StreamingPomReader() {
+        this.inputFactory = XMLInputFactory.newInstance();
+        this.inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Splits a simple absolute element path into its element names.
+     *
+     * @param path the path to split, e.g. {@code /project/version}
+     * @return the element names of the path
+     */
+    public static List<String> split(final String path) {
+        return List.of(path.substring(1).split("/"));
+    }
+
+    private XMLStreamReader createReader(final InputStream input) throws XMLStreamException {
+        synchronized (inputFactory) {
+            return inputFactory.createXMLStreamReader(input);
+        }
+    }
+
+    /**
+     * Reads the values of all given paths from the pom.
+     *
+     * @param input the content of the pom
+     * @param paths the element names of the paths by their id, see {@link #split(String)}
+     * @return the values by the id of their path, an empty string if a path was not found
+     * @throws XMLStreamException if the pom is malformed
+     */
+    public Map<String, String> read(final InputStream input, final Map<String, List<String>> paths) throws XMLStreamException {
+        final Map<String, String> values = new HashMap<>();
+        paths.keySet().forEach(id -> values.put(id, ""));
+        final Map<String, List<String>> remaining = new HashMap<>(paths);
+        final List<String> stack = new ArrayList<>();
+        final List<Capture> captures = new ArrayList<>();
+
+        final XMLStreamReader reader = createReader(input);
+        try {
+            while (reader.hasNext() && !remaining.isEmpty()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        final String prefix = reader.getPrefix();
+                        stack.add(prefix == null || prefix.isEmpty() ? reader.getLocalName() : prefix + ":" + reader.getLocalName());
+                        final List<String> ids = new ArrayList<>();
+                        remaining.forEach((id, path) -> {
+                            if (path.equals(stack)) {
+                                ids.add(id);
+                            }
+                        });
+                        if (!ids.isEmpty()) {
+                            captures.add(new Capture(ids, stack.size(), new StringBuilder()));
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                        for (final Capture capture : captures) {
+                            capture.text().append(reader.getText());
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        if (!captures.isEmpty() && captures.get(captures.size() - 1).depth() == stack.size()) {
+                            final Capture capture = captures.remove(captures.size() - 1);
+                            for (final String id : capture.ids()) {
+                                values.put(id, capture.text().toString());
+                                remaining.remove(id);
+                            }
+                        }
+                        stack.remove(stack.size() - 1);
+                    }
+                    default -> {
+                        // Other events do not contribute to string values
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return values;
+    }
+
+    /**
+     * The text of an element currently being read for the given path ids.
+     *
+     * @param ids   the ids of all paths matching the element
+     * @param depth the depth of the element
+     * @param text  the text read so far
+     */
+    private record Capture(List<String> ids, int depth, StringBuilder text) {
+    }
+}
@@ -0,0 +1,142 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex.VersionGroup;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Filters the entries of an {@link ArtifactVersionIndex} by a maven version range of their group
+ * and by comparisons of their extracted values.
+ * All comparisons use the pre-parsed versions of the entries, see {@link PomValues#comparable(String)}.
+ *
+ * @param range      the range the group versions need to be contained in or null for all groups
+ * @param predicates the predicates all entries need to match, sorted by their expression
+ */
+public record VersionFilter(@Nullable VersionRange range, List<EntryPredicate> predicates) {
+
+    /**
+     * A filter matching all entries.
+     */
+    public static final VersionFilter NONE = new VersionFilter(null, List.of());
+
+    /**
+     * Creates a filter from the given range and predicate expressions.
+     *
+     * @param range       the maven version range specification like {@code [1.2,2.0)} or null for all groups
+     * @param expressions the predicate expressions like {@code api>=1.20}, see {@link EntryPredicate#parse(String)}
+     * @return the filter
+     * @throws IllegalArgumentException if the range or an expression is malformed
+     */
+    public static VersionFilter of(@Nullable final String range, final List<String> expressions) {
+        VersionRange versionRange = null;
+        if (range != null && !range.isBlank()) {
+            try {
+                versionRange = VersionRange.createFromVersionSpec(range.trim());
+            } catch (final InvalidVersionSpecificationException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+        }
+        final List<EntryPredicate> predicates = expressions.stream()
+                .map(EntryPredicate::parse)
+                .sorted(Comparator.comparing(EntryPredicate::toString))
+                .toList();
+        if (versionRange == null && predicates.isEmpty()) {
+            return NONE;
+        }
+        return new VersionFilter(versionRange, predicates);
+    }
+
+    /**
+     * Checks if the entries of the given group may match this filter.
+     *
+     * @param group the group to check
+     * @return true if the group version is contained in the range
+     */
+    public boolean matches(final VersionGroup group) {
+        return range == null || range.containsVersion(group.version());
+    }
+
+    /**
+     * Checks if the given entry matches all predicates of this filter.
+     * The range is checked for whole groups, see {@link #matches(VersionGroup)}.
+     *
+     * @param entry the entry to check
+     * @return true if all predicates match
+     */
+    public boolean matches(final PomVersionedEntry entry) {
+        for (final EntryPredicate predicate : predicates) {
+            if (!predicate.test(entry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A comparison of an extracted value with a constant using maven's version ordering,
+     * so {@code 1.20} is greater than {@code 1.9}.
+     *
+     * @param entryId  the id of the xPath that extracted the value
+     * @param operator the comparison operator, one of {@code =}, {@code !=}, {@code >}, {@code >=}, {@code <} and {@code <=}
+     * @param value    the pre-parsed constant to compare with
+     */
+    public record EntryPredicate(String entryId, String operator, ComparableVersion value) {
+
+        /**
+         * The expression of a predicate, the operators with two characters need to be matched first
+         * and the value must not start with an operator character, so {@code api>=} is not read as {@code api > "="}.
+         */
+        private static final Pattern EXPRESSION = Pattern.compile("^([^<>=!]+)(>=|<=|!=|=|>|<)([^<>=!].*)$");
+
+        /**
+         * Parses an expression like {@code api>=1.20}.
+         *
+         * @param expression the expression to parse
+         * @return the predicate
+         * @throws IllegalArgumentException if the expression is malformed
+         */
+        public static EntryPredicate parse(final String expression) {
+            final Matcher matcher = EXPRESSION.matcher(expression.trim());
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid entry predicate \"" + expression + "\"");
+            }
+            return new EntryPredicate(matcher.group(1).trim(), matcher.group(2), new ComparableVersion(matcher.group(3).trim()));
+        }
+
+        /**
+         * Checks if the extracted value of the given entry matches this predicate.
+         * Entries without a value for the xPath never match.
+         *
+         * @param entry the entry to check
+         * @return true if the value matches
+         */
+        public boolean test(final PomVersionedEntry entry) {
+            final ComparableVersion extracted = entry.pom().comparable(entryId);
+            if (extracted == null) {
+                return false;
+            }
+            final int compared = extracted.compareTo(value);
+            return switch (operator) {
+                case "=" -> compared == 0;
+                case "!=" -> compared != 0;
+                case ">" -> compared > 0;
+                case ">=" -> compared >= 0;
+                case "<" -> compared < 0;
+                case "<=" -> compared <= 0;
+                default -> throw new IllegalStateException("Unknown operator " + operator);
+            };
+        }
+
+        @Override
+        public String toString() {
+            return entryId + operator + value.getCanonical();
+        }
+    }
+}
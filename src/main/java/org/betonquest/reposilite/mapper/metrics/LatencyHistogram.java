@@ -0,0 +1,108 @@
+package org.betonquest.reposilite.mapper.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations with fixed bucket bounds.
+ * Recording only increments the {@link LongAdder}s of the matching bucket and the sum,
+ * so it is cheap enough to be recorded for every request.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Bucket bounds in seconds for REST API requests.
+     */
+    public static final double[] REQUEST_BOUNDS = {0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1};
+
+    /**
+     * Bucket bounds in seconds for cache builds.
+     */
+    public static final double[] BUILD_BOUNDS = {0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300, 600};
+
+    /**
+     * The inclusive upper bounds of all buckets in seconds.
+     */
+    private final double[] bounds;
+
+    /**
+     * The inclusive upper bounds of all buckets in nanoseconds.
+     */
+    private final long[] boundsNanos;
+
+    /**
+     * The number of recorded durations per bucket, the last bucket holds all durations above the highest bound.
+     */
+    private final LongAdder[] buckets;
+
+    /**
+     * The sum of all recorded durations in nanoseconds.
+     */
+    private final LongAdder sumNanos;
+
+    /**
+     * Creates a new empty histogram.
+     *
+     * @param bounds the ascending upper bounds of all buckets in seconds
+     */
+    public LatencyHistogram(final double... bounds) {
+        this.bounds = bounds.clone();
+        this.boundsNanos = new long[bounds.length];
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < bounds.length; i++) {
+            boundsNanos[i] = (long) (bounds[i] * TimeUnit.SECONDS.toNanos(1));
+        }
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+        this.sumNanos = new LongAdder();
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(final long nanos) {
+        int bucket = 0;
+        while (bucket < boundsNanos.length && nanos > boundsNanos[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Returns the upper bounds of all buckets in seconds, without the unbounded last bucket.
+     *
+     * @return the upper bounds
+     */
+    public double[] getBounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * Returns the cumulative number of recorded durations per bucket, the last bucket being the total count.
+     * The values are read without locking, so they are only consistent while no durations are recorded.
+     *
+     * @return the cumulative counts
+     */
+    public long[] getCumulativeCounts() {
+        final long[] cumulative = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            total += buckets[i].sum();
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Returns the sum of all recorded durations in seconds.
+     *
+     * @return the sum in seconds
+     */
+    public double getSumSeconds() {
+        return sumNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+}
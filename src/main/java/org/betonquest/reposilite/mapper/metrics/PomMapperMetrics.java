@@ -0,0 +1,288 @@
+package org.betonquest.reposilite.mapper.metrics;
+
+import com.google.gson.JsonObject;
+import org.betonquest.reposilite.mapper.integration.ArtifactBuildResult;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counters, histograms and gauges of the cache builds and REST API requests of the PomMapperPlugin.
+ * Recording is lock-free and only touches {@link LongAdder}s, gauges are evaluated when the metrics are exported.
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public class PomMapperMetrics {
+
+    /**
+     * The prefix of all exported metric names.
+     */
+    private static final String PREFIX = "pommapper_";
+
+    /**
+     * The duration of all full cache builds.
+     */
+    private final LatencyHistogram fullBuildDuration;
+
+    /**
+     * The number of storage calls of the last full cache build.
+     */
+    private final AtomicLong lastFullBuildStorageCalls;
+
+    /**
+     * The duration of all artifact cache builds by artifact config id.
+     */
+    private final Map<String, LatencyHistogram> artifactBuildDuration;
+
+    /**
+     * The number of poms read and parsed during cache builds.
+     */
+    private final LongAdder pomsParsed;
+
+    /**
+     * The number of unchanged poms reused during cache builds.
+     */
+    private final LongAdder pomsSkipped;
+
+    /**
+     * The number of poms that could not be read or parsed during cache builds.
+     */
+    private final LongAdder pomsFailed;
+
+    /**
+     * The number of storage calls during cache builds.
+     */
+    private final LongAdder storageCalls;
+
+    /**
+     * The duration of all requests by route.
+     */
+    private final Map<String, LatencyHistogram> requestDuration;
+
+    /**
+     * The number of requests by route and status code.
+     */
+    private final Map<RouteStatus, LongAdder> requests;
+
+    /**
+     * The gauges evaluated on export by their name without prefix.
+     */
+    private final Map<String, Gauge> gauges;
+
+    /**
+     * Creates new empty metrics.
+     */
+    public PomMapperMetrics() {
+        this.fullBuildDuration = new LatencyHistogram(LatencyHistogram.BUILD_BOUNDS);
+        this.lastFullBuildStorageCalls = new AtomicLong();
+        this.artifactBuildDuration = new ConcurrentSkipListMap<>();
+        this.pomsParsed = new LongAdder();
+        this.pomsSkipped = new LongAdder();
+        this.pomsFailed = new LongAdder();
+        this.storageCalls = new LongAdder();
+        this.requestDuration = new ConcurrentSkipListMap<>();
+        this.requests = new ConcurrentHashMap<>();
+        this.gauges = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Registers a gauge that is evaluated whenever the metrics are exported.
+     *
+     * @param name   the name of the gauge without prefix
+     * @param help   the description of the gauge
+     * @param supply supplies the current value of the gauge
+     */
+    public void registerGauge(final String name, final String help, final LongSupplier supply) {
+        gauges.put(name, new Gauge(help, supply));
+    }
+
+    /**
+     * Records a full cache build of all artifacts.
+     *
+     * @param results       the results of all artifacts
+     * @param durationNanos the duration of the full build in nanoseconds
+     */
+    public void recordFullBuild(final Collection<ArtifactBuildResult> results, final long durationNanos) {
+        fullBuildDuration.record(durationNanos);
+        long calls = 0;
+        for (final ArtifactBuildResult result : results) {
+            recordArtifactBuild(result);
+            calls += result.storageCalls();
+        }
+        lastFullBuildStorageCalls.set(calls);
+    }
+
+    /**
+     * Records the cache build of a single artifact.
+     *
+     * @param result the result of the artifact
+     */
+    public void recordArtifactBuild(final ArtifactBuildResult result) {
+        artifactBuildDuration.computeIfAbsent(result.artifactConfigId(), id -> new LatencyHistogram(LatencyHistogram.BUILD_BOUNDS))
+                .record(result.durationNanos());
+        pomsParsed.add(result.parsed());
+        pomsSkipped.add(result.skipped());
+        pomsFailed.add(result.failed());
+        storageCalls.add(result.storageCalls());
+    }
+
+    /**
+     * Records a request of the REST API.
+     *
+     * @param route         the path of the route
+     * @param status        the status code of the response
+     * @param durationNanos the duration of the request in nanoseconds
+     */
+    public void recordRequest(final String route, final int status, final long durationNanos) {
+        LatencyHistogram histogram = requestDuration.get(route);
+        if (histogram == null) {
+            histogram = requestDuration.computeIfAbsent(route, path -> new LatencyHistogram(LatencyHistogram.REQUEST_BOUNDS));
+        }
+        histogram.record(durationNanos);
+        final RouteStatus key = new RouteStatus(route, status);
+        LongAdder counter = requests.get(key);
+        if (counter == null) {
+            counter = requests.computeIfAbsent(key, routeStatus -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Exports all metrics in the Prometheus text exposition format.
+     *
+     * @return the exported metrics
+     */
+    public String toPrometheus() {
+        final StringBuilder out = new StringBuilder(4096);
+        header(out, "build_duration_seconds", "Duration of full cache builds.", "histogram");
+        histogram(out, "build_duration_seconds", "", fullBuildDuration);
+        header(out, "artifact_build_duration_seconds", "Duration of cache builds per artifact.", "histogram");
+        artifactBuildDuration.forEach((id, histogram) -> histogram(out, "artifact_build_duration_seconds", label("artifact", id) + ",", histogram));
+        header(out, "poms_total", "Poms handled during cache builds by result.", "counter");
+        sample(out, "poms_total{result=\"parsed\"}", pomsParsed.sum());
+        sample(out, "poms_total{result=\"skipped\"}", pomsSkipped.sum());
+        sample(out, "poms_total{result=\"failed\"}", pomsFailed.sum());
+        header(out, "storage_calls_total", "Storage calls during cache builds.", "counter");
+        sample(out, "storage_calls_total", storageCalls.sum());
+        header(out, "last_build_storage_calls", "Storage calls of the last full cache build.", "gauge");
+        sample(out, "last_build_storage_calls", lastFullBuildStorageCalls.get());
+        header(out, "request_duration_seconds", "Duration of REST API requests per route.", "histogram");
+        requestDuration.forEach((route, histogram) -> histogram(out, "request_duration_seconds", label("route", route) + ",", histogram));
+        header(out, "requests_total", "REST API requests per route and status code.", "counter");
+        requests.forEach((key, counter) -> sample(out, "requests_total{" + label("route", key.route()) + "," + label("status", String.valueOf(key.status())) + "}", counter.sum()));
+        gauges.forEach((name, gauge) -> {
+            header(out, name, gauge.help(), "gauge");
+            sample(out, name, gauge.supply().getAsLong());
+        });
+        return out.toString();
+    }
+
+    private static void header(final StringBuilder out, final String name, final String help, final String type) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(final StringBuilder out, final String name, final Number value) {
+        out.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void histogram(final StringBuilder out, final String name, final String labels, final LatencyHistogram histogram) {
+        final double[] bounds = histogram.getBounds();
+        final long[] counts = histogram.getCumulativeCounts();
+        for (int i = 0; i < counts.length; i++) {
+            final String bound = i < bounds.length ? format(bounds[i]) : "+Inf";
+            sample(out, name + "_bucket{" + labels + label("le", bound) + "}", counts[i]);
+        }
+        final String plainLabels = labels.isEmpty() ? "" : "{" + labels.substring(0, labels.length() - 1) + "}";
+        sample(out, name + "_sum" + plainLabels, histogram.getSumSeconds());
+        sample(out, name + "_count" + plainLabels, counts[counts.length - 1]);
+    }
+
+    private static String label(final String name, final String value) {
+        return name + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+
+    private static String format(final double value) {
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Exports all metrics as JSON.
+     *
+     * @return the exported metrics
+     */
+    public JsonObject toJson() {
+        final JsonObject builds = new JsonObject();
+        builds.add("duration", histogram(fullBuildDuration));
+        builds.addProperty("lastStorageCalls", lastFullBuildStorageCalls.get());
+        builds.addProperty("storageCalls", storageCalls.sum());
+        final JsonObject poms = new JsonObject();
+        poms.addProperty("parsed", pomsParsed.sum());
+        poms.addProperty("skipped", pomsSkipped.sum());
+        poms.addProperty("failed", pomsFailed.sum());
+        builds.add("poms", poms);
+        final JsonObject artifacts = new JsonObject();
+        artifactBuildDuration.forEach((id, histogram) -> artifacts.add(id, histogram(histogram)));
+        builds.add("artifacts", artifacts);
+
+        final JsonObject routes = new JsonObject();
+        requestDuration.forEach((route, histogram) -> {
+            final JsonObject routeJson = new JsonObject();
+            routeJson.add("duration", histogram(histogram));
+            routeJson.add("statuses", new JsonObject());
+            routes.add(route, routeJson);
+        });
+        requests.forEach((key, counter) -> {
+            final JsonObject routeJson = routes.getAsJsonObject(key.route());
+            if (routeJson != null) {
+                routeJson.getAsJsonObject("statuses").addProperty(String.valueOf(key.status()), counter.sum());
+            }
+        });
+
+        final JsonObject gaugesJson = new JsonObject();
+        gauges.forEach((name, gauge) -> gaugesJson.addProperty(name, gauge.supply().getAsLong()));
+
+        final JsonObject metrics = new JsonObject();
+        metrics.add("builds", builds);
+        metrics.add("requests", routes);
+        metrics.add("gauges", gaugesJson);
+        return metrics;
+    }
+
+    private static JsonObject histogram(final LatencyHistogram histogram) {
+        final double[] bounds = histogram.getBounds();
+        final long[] counts = histogram.getCumulativeCounts();
+        final JsonObject buckets = new JsonObject();
+        for (int i = 0; i < counts.length; i++) {
+            buckets.addProperty(i < bounds.length ? format(bounds[i]) : "+Inf", counts[i]);
+        }
+        final JsonObject json = new JsonObject();
+        json.addProperty("count", counts[counts.length - 1]);
+        json.addProperty("sumSeconds", histogram.getSumSeconds());
+        json.add("buckets", buckets);
+        return json;
+    }
+
+    /**
+     * The key of the request counters.
+     *
+     * @param route  the path of the route
+     * @param status the status code of the response
+     */
+    private record RouteStatus(String route, int status) {
+    }
+
+    /**
+     * A gauge evaluated on export.
+     *
+     * @param help   the description of the gauge
+     * @param supply supplies the current value of the gauge
+     */
+    private record Gauge(String help, LongSupplier supply) {
+    }
+}
@@ -0,0 +1,101 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import org.betonquest.reposilite.mapper.integration.VersionFilter;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The body of a batch service request.
+ * Filters given for a single query take precedence over the shared filters of the request,
+ * which take precedence over the defaults of the id service.
+ *
+ * @param ids       the ids to query with the shared filters
+ * @param queries   the queries with their own filters
+ * @param snapshots the shared snapshot filter or null for the default
+ * @param releases  the shared release filter or null for the default
+ * @param limit     the shared limit per group or null for the default
+ * @param since     the shared "since" version or null for the default
+ * @param range     the shared maven version range of the groups or null for all groups
+ * @param entries   the shared entry predicates like {@code api>=1.20} or null for none
+ */
+public record BatchRequest(@Nullable List<String> ids, @Nullable List<Query> queries, @Nullable Boolean snapshots,
+                           @Nullable Boolean releases, @Nullable Integer limit, @Nullable String since,
+                           @Nullable String range, @Nullable List<String> entries) {
+
+    /**
+     * Returns all queries of the request with their effective filters, the ids first followed by the queries.
+     *
+     * @return the effective queries in request order
+     * @throws IllegalArgumentException if a query is null
+     */
+    public List<Query> resolve() {
+        final Query shared = new Query(null,
+                snapshots == null ? RestfulDefinitions.SERVICE_ID_QPARAM_DEFAULT_SNAPSHOT : snapshots,
+                releases == null ? RestfulDefinitions.SERVICE_ID_QPARAM_DEFAULT_RELEASE : releases,
+                limit == null ? RestfulDefinitions.SERVICE_ID_QPARAM_DEFAULT_LIMIT_VERSIONS : limit,
+                since == null ? RestfulDefinitions.SERVICE_ID_QPARAM_DEFAULT_SINCE : since,
+                range, entries);
+        final List<Query> resolved = new ArrayList<>();
+        if (ids != null) {
+            ids.forEach(id -> resolved.add(shared.withId(id)));
+        }
+        if (queries != null) {
+            for (final Query query : queries) {
+                if (query == null) {
+                    throw new IllegalArgumentException("A batch request must not contain null queries.");
+                }
+                resolved.add(query.withDefaults(shared));
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * A single query of a batch request.
+     *
+     * @param id        the artifact config id
+     * @param snapshots the snapshot filter or null for the shared filter
+     * @param releases  the release filter or null for the shared filter
+     * @param limit     the limit per group or null for the shared limit
+     * @param since     the "since" version or null for the shared version
+     * @param range     the maven version range of the groups or null for the shared range
+     * @param entries   the entry predicates like {@code api>=1.20} or null for the shared predicates
+     */
+    public record Query(@Nullable String id, @Nullable Boolean snapshots, @Nullable Boolean releases,
+                        @Nullable Integer limit, @Nullable String since, @Nullable String range, @Nullable List<String> entries) {
+
+        /**
+         * Creates the filter of this query like the query parameters {@code range} and {@code entry.*} of the id service.
+         *
+         * @return the filter
+         * @throws IllegalArgumentException if the range or a predicate is malformed, null or blank
+         */
+        public VersionFilter filter() {
+            if (entries == null) {
+                return VersionFilter.of(range, List.of());
+            }
+            for (final String entry : entries) {
+                if (entry == null || entry.isBlank()) {
+                    throw new IllegalArgumentException("Entry predicates of query \"" + id + "\" must not be null or blank.");
+                }
+            }
+            return VersionFilter.of(range, entries);
+        }
+
+        private Query withId(final String id) {
+            return new Query(id, snapshots, releases, limit, since, range, entries);
+        }
+
+        private Query withDefaults(final Query defaults) {
+            return new Query(id,
+                    snapshots == null ? defaults.snapshots() : snapshots,
+                    releases == null ? defaults.releases() : releases,
+                    limit == null ? defaults.limit() : limit,
+                    since == null ? defaults.since() : since,
+                    range == null ? defaults.range() : range,
+                    entries == null ? defaults.entries() : entries);
+        }
+    }
+}
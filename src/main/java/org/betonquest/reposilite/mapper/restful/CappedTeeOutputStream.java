@@ -0,0 +1,81 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Forwards all bytes to a target stream and keeps a copy of them as long as they do not exceed a maximum size.
+ * Used to stream a response to the client while capturing it for the {@link ResponseCache}.
+ */
+public class CappedTeeOutputStream extends OutputStream {
+
+    /**
+     * The stream all bytes are forwarded to.
+     */
+    private final OutputStream target;
+
+    /**
+     * The maximum number of bytes to copy.
+     */
+    private final int maxBytes;
+
+    /**
+     * The copy of all written bytes or null if they exceeded the maximum size.
+     */
+    @Nullable
+    private ByteArrayOutputStream copy;
+
+    /**
+     * Creates a new tee.
+     *
+     * @param target   the stream all bytes are forwarded to
+     * @param maxBytes the maximum number of bytes to copy, zero or negative disables copying
+     */
+    public CappedTeeOutputStream(final OutputStream target, final int maxBytes) {
+        super();
+        this.target = target;
+        this.maxBytes = maxBytes;
+        this.copy = maxBytes > 0 ? new ByteArrayOutputStream() : null;
+    }
+
+    @Override
+    public void write(final int value) throws IOException {
+        target.write(value);
+        if (fits(1)) {
+            copy.write(value);
+        }
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        target.write(bytes, offset, length);
+        if (fits(length)) {
+            copy.write(bytes, offset, length);
+        }
+    }
+
+    private boolean fits(final int length) {
+        if (copy != null && copy.size() + length > maxBytes) {
+            copy = null;
+        }
+        return copy != null;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        target.flush();
+    }
+
+    /**
+     * Returns the copy of all written bytes.
+     *
+     * @return the copied bytes or null if they exceeded the maximum size
+     */
+    @Nullable
+    public byte[] getCopy() {
+        return copy == null ? null : copy.toByteArray();
+    }
+}
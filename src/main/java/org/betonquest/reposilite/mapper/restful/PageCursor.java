@@ -0,0 +1,73 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex;
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex.Position;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Opaque cursor of the next page of a paginated id service request.
+ * Encodes the position of the next entry together with the generation of the index and the query it belongs to,
+ * so cursors of a replaced index or a different query are detected.
+ *
+ * @param generation the generation of the index the position belongs to
+ * @param query      the hash of the query the position belongs to
+ * @param position   the position of the first entry of the next page
+ */
+public record PageCursor(long generation, int query, Position position) {
+
+    /**
+     * The number of bytes of an encoded cursor.
+     */
+    private static final int BYTES = Long.BYTES + 4 * Integer.BYTES;
+
+    /**
+     * Decodes a cursor.
+     *
+     * @param cursor the encoded cursor
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static PageCursor decode(final String cursor) {
+        final ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+        if (buffer.remaining() != BYTES) {
+            throw new IllegalArgumentException("Invalid cursor length");
+        }
+        try {
+            final PageCursor decoded = new PageCursor(buffer.getLong(), buffer.getInt(), new Position(buffer.getInt(), buffer.getInt(), buffer.getInt()));
+            if (decoded.position().group() < 0 || decoded.position().entry() < 0 || decoded.position().matched() < 0) {
+                throw new IllegalArgumentException("Invalid cursor position");
+            }
+            return decoded;
+        } catch (final BufferUnderflowException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Encodes this cursor.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        final ByteBuffer buffer = ByteBuffer.allocate(BYTES)
+                .putLong(generation)
+                .putInt(query)
+                .putInt(position.group())
+                .putInt(position.entry())
+                .putInt(position.matched());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Checks if the position of this cursor belongs to the given index.
+     *
+     * @param index the index to check
+     * @return true if the index has the generation of this cursor, false if the index was replaced since
+     */
+    public boolean isValidFor(final ArtifactVersionIndex index) {
+        return generation == index.getGeneration();
+    }
+}
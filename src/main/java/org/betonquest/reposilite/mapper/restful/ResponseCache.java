@@ -0,0 +1,158 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex;
+import org.betonquest.reposilite.mapper.integration.VersionFilter;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Bounded least-recently-used cache of serialized responses of the id service.
+ * Every response is bound to the {@link ArtifactVersionIndex} it was generated from,
+ * so a response is never served once the cached versions of its artifact changed.
+ */
+public class ResponseCache {
+
+    /**
+     * Supplies the maximum number of cached responses.
+     */
+    private final IntSupplier maxEntries;
+
+    /**
+     * The cached responses in access order.
+     */
+    private final Map<Key, CachedResponse> responses;
+
+    /**
+     * Creates a new response cache.
+     *
+     * @param maxEntries supplies the maximum number of cached responses, zero or negative disables caching
+     */
+    public ResponseCache(final IntSupplier maxEntries) {
+        this.maxEntries = maxEntries;
+        this.responses = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, CachedResponse> eldest) {
+                return size() > maxEntries.getAsInt();
+            }
+        };
+    }
+
+    /**
+     * Returns the cached response for the given key if it was generated from the given index.
+     *
+     * @param key   the key of the request
+     * @param index the current index of the requested artifact
+     * @return the serialized response or null if not cached
+     */
+    @Nullable
+    public byte[] get(final Key key, final ArtifactVersionIndex index) {
+        synchronized (responses) {
+            final CachedResponse cached = responses.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.index() != index) {
+                responses.remove(key);
+                return null;
+            }
+            return cached.body();
+        }
+    }
+
+    /**
+     * Caches the response for the given key.
+     *
+     * @param key   the key of the request
+     * @param index the index the response was generated from
+     * @param body  the serialized response
+     */
+    public void put(final Key key, final ArtifactVersionIndex index, final byte[] body) {
+        if (maxEntries.getAsInt() <= 0) {
+            return;
+        }
+        synchronized (responses) {
+            responses.put(key, new CachedResponse(index, body));
+        }
+    }
+
+    /**
+     * Returns the number of cached responses.
+     *
+     * @return the number of cached responses
+     */
+    public int size() {
+        synchronized (responses) {
+            return responses.size();
+        }
+    }
+
+    /**
+     * Returns the size of all cached response bodies.
+     *
+     * @return the size in bytes
+     */
+    public long bytes() {
+        synchronized (responses) {
+            long bytes = 0;
+            for (final CachedResponse response : responses.values()) {
+                bytes += response.body().length;
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Removes all cached responses of the given artifact.
+     *
+     * @param artifactConfigId the artifact config id
+     */
+    public void invalidate(final String artifactConfigId) {
+        synchronized (responses) {
+            responses.keySet().removeIf(key -> key.id().equals(artifactConfigId));
+        }
+    }
+
+    /**
+     * Normalized query of the id service identifying a cached response.
+     *
+     * @param id        the artifact config id
+     * @param snapshots whether snapshots are listed
+     * @param releases  whether releases are listed
+     * @param limit     the limit per group, normalized to -1 for no limit
+     * @param since     the canonical form of the "since" version
+     * @param filter    the range and entry predicates
+     */
+    public record Key(String id, boolean snapshots, boolean releases, int limit, String since, VersionFilter filter) {
+
+        /**
+         * Creates a normalized key for the given query.
+         *
+         * @param id        the artifact config id
+         * @param snapshots whether snapshots are listed
+         * @param releases  whether releases are listed
+         * @param limit     the limit per group
+         * @param since     the "since" version
+         * @param filter    the range and entry predicates
+         * @return the normalized key
+         */
+        public static Key of(final String id, final boolean snapshots, final boolean releases, final int limit, final String since,
+                             final VersionFilter filter) {
+            return new Key(id, snapshots, releases, limit > 0 ? limit : -1, new ComparableVersion(since).getCanonical(), filter);
+        }
+    }
+
+    /**
+     * A serialized response bound to the index it was generated from.
+     *
+     * @param index the index the response was generated from
+     * @param body  the serialized response
+     */
+    private record CachedResponse(ArtifactVersionIndex index, byte[] body) {
+    }
+}
@@ -125,6 +125,126 @@ public interface RestfulDefinitions {
      */
     String SERVICE_ID_QPARAM_DEFAULT_SINCE = "0.0.1";
 
+    /**
+     * The query parameter for the maven version range of the id service.
+     */
+    String SERVICE_ID_QPARAM_NAME_RANGE = "range";
+
+    /**
+     * The prefix of query parameters comparing extracted values of the id service, e.g. {@code entry.api>=1.20}.
+     */
+    String SERVICE_ID_QPARAM_PREFIX_ENTRY = "entry.";
+
+    /**
+     * The query parameter for the page size of the id service.
+     */
+    String SERVICE_ID_QPARAM_NAME_PAGE_SIZE = "pageSize";
+
+    /**
+     * The default value of the page size query parameter for the id service.
+     */
+    int SERVICE_ID_QPARAM_DEFAULT_PAGE_SIZE = -1;
+
+    /**
+     * The query parameter for the cursor of the next page of the id service.
+     */
+    String SERVICE_ID_QPARAM_NAME_CURSOR = "cursor";
+
+    /**
+     * The header containing the cursor of the next page of the id service.
+     */
+    String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
+    // ------------------- Service: latest -------------------
+
+    /**
+     * The path prefix of the latest services below the id service.
+     */
+    String SERVICE_LATEST_PREFIXED = SERVICE_ID_PATH + "/latest/";
+
+    /**
+     * The path of the latest release service.
+     */
+    String SERVICE_LATEST_RELEASE_PATH = SERVICE_LATEST_PREFIXED + "release";
+
+    /**
+     * The path of the latest snapshot service.
+     */
+    String SERVICE_LATEST_SNAPSHOT_PATH = SERVICE_LATEST_PREFIXED + "snapshot";
+
+    /**
+     * The path of the latest version per group service.
+     */
+    String SERVICE_LATEST_GROUP_PATH = SERVICE_LATEST_PREFIXED + "group/{group}";
+
+    // ------------------- Service: lookup -------------------
+
+    /**
+     * The path of the lookup service for extracted values below the id service.
+     */
+    String SERVICE_LOOKUP_PATH = SERVICE_ID_PATH + "/entries/{entry}";
+
+    /**
+     * The name of the value query parameter for the lookup service.
+     */
+    String SERVICE_LOOKUP_QPARAM_NAME_VALUE = "value";
+
+    // ------------------- Service: batch -------------------
+
+    /**
+     * The path of the batch service.
+     */
+    String SERVICE_BATCH_PATH = ROOT + "batch";
+
+    /**
+     * The maximum number of queries in a single batch service request.
+     */
+    int SERVICE_BATCH_MAX_QUERIES = 500;
+
+    // ------------------- Service: metrics -------------------
+
+    /**
+     * The path of the metrics service.
+     */
+    String SERVICE_METRICS_PATH = ROOT + "metrics";
+
+    /**
+     * The name of the format query parameter for the metrics service.
+     */
+    String SERVICE_METRICS_QPARAM_NAME_FORMAT = "format";
+
+    /**
+     * The Prometheus text format of the metrics service.
+     */
+    String SERVICE_METRICS_FORMAT_PROMETHEUS = "prometheus";
+
+    /**
+     * The JSON format of the metrics service.
+     */
+    String SERVICE_METRICS_FORMAT_JSON = "json";
+
+    /**
+     * The default value of the format query parameter for the metrics service.
+     */
+    String SERVICE_METRICS_QPARAM_DEFAULT_FORMAT = SERVICE_METRICS_FORMAT_PROMETHEUS;
+
+    /**
+     * The content type of the Prometheus text format.
+     */
+    String CONTENT_TYPE_PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+
+    // ------------------- Warmup -------------------
+
+    /**
+     * The header telling clients when to retry while the cache is warming up.
+     */
+    String HEADER_RETRY_AFTER = "Retry-After";
+
+    /**
+     * The seconds clients are asked to wait before retrying while the cache is warming up.
+     */
+    int WARMUP_RETRY_AFTER_SECONDS = 10;
+
     // ------------------- Rest API Results -------------------
 
     /**
@@ -151,4 +271,19 @@ public interface RestfulDefinitions {
      * The key for the artifact's maven version group in the JSON result.
      */
     String RESULT_JSON_KEY_GROUP = "group";
+
+    /**
+     * The key for the artifact config id of a query in the JSON result of the batch service.
+     */
+    String RESULT_JSON_KEY_ID = "id";
+
+    /**
+     * The key for the HTTP status of a query in the JSON result of the batch service.
+     */
+    String RESULT_JSON_KEY_STATUS = "status";
+
+    /**
+     * The key for the version groups of a query in the JSON result of the batch service.
+     */
+    String RESULT_JSON_KEY_RESULT = "result";
 }
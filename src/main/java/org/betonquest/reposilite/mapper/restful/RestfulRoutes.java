@@ -2,8 +2,8 @@ package org.betonquest.reposilite.mapper.restful;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
 import com.reposilite.maven.MavenFacade;
 import com.reposilite.maven.infrastructure.MavenRoutes;
 import com.reposilite.shared.ContextDsl;
@@ -16,21 +16,28 @@ import io.javalin.openapi.HttpMethod;
 import io.javalin.openapi.OpenApi;
 import io.javalin.openapi.OpenApiContent;
 import io.javalin.openapi.OpenApiParam;
+import io.javalin.openapi.OpenApiRequestBody;
 import io.javalin.openapi.OpenApiResponse;
 import kotlin.Unit;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex;
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex.Page;
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex.Position;
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex.VersionGroup;
 import org.betonquest.reposilite.mapper.integration.ArtifactsVersionsCache;
 import org.betonquest.reposilite.mapper.integration.PomMapperFacade;
-import org.betonquest.reposilite.mapper.integration.PomVersionedEntry;
+import org.betonquest.reposilite.mapper.integration.VersionFilter;
+import org.betonquest.reposilite.mapper.metrics.PomMapperMetrics;
 import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.betonquest.reposilite.mapper.settings.WarmupPolicy;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.function.Predicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Contains and handles all routes for the Restful API.
@@ -40,8 +47,12 @@ public class RestfulRoutes extends MavenRoutes implements RestfulDefinitions {
 
     private final Gson gson = new GsonBuilder().create();
 
+    private final VersionsJsonSerializer serializer = new VersionsJsonSerializer();
+
     private final PomMapperFacade baseFacade;
 
+    private final ResponseCache responseCache;
+
     @OpenApi(
             path = SERVICE_ID_PATH,
             methods = HttpMethod.GET,
@@ -53,16 +64,24 @@ public class RestfulRoutes extends MavenRoutes implements RestfulDefinitions {
                     @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_SNAPSHOT, description = "Whether snapshot versions are listed." + SERVICE_ID_QPARAM_DEFAULT_SNAPSHOT + " by default.", example = "false", type = Boolean.class),
                     @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_RELEASE, description = "Whether release versions are listed. " + SERVICE_ID_QPARAM_DEFAULT_RELEASE + " by default.", example = "false", type = Boolean.class),
                     @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_LIMIT_VERSIONS, description = "The maximum amount of elements per group to return. " + SERVICE_ID_QPARAM_DEFAULT_LIMIT_VERSIONS + " by default.", example = "10", type = Integer.class),
-                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_SINCE, description = "Only return versions newer than the given version.", example = "1.2.3")
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_SINCE, description = "Only return versions newer than the given version.", example = "1.2.3"),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_RANGE, description = "Only return groups with a version in the given maven version range.", example = "[1.2,2.0)"),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_PREFIX_ENTRY + "{entry}", description = "Only return versions whose value extracted by the xPath with the given id compares to the given value, "
+                            + "using one of =, !=, >, >=, < and <= with maven's version ordering. Written as " + SERVICE_ID_QPARAM_PREFIX_ENTRY + "api>=1.20, may be repeated.", example = "1.20"),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_PAGE_SIZE, description = "The maximum amount of elements per page. The cursor of the next page is returned in the " + HEADER_NEXT_CURSOR + " header. " + SERVICE_ID_QPARAM_DEFAULT_PAGE_SIZE + " by default.", example = "100", type = Integer.class),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_CURSOR, description = "The cursor of the page to return as given in the " + HEADER_NEXT_CURSOR + " header of the previous page.")
             },
             responses = {
                     @OpenApiResponse(status = "200", description = "Valid result containing a list of all mapped versions with their jar paths", content = @OpenApiContent(from = String.class, type = ContentType.JSON)),
                     @OpenApiResponse(status = "204 ", description = "Valid result containing no entries"),
-                    @OpenApiResponse(status = "404", description = "Internal id not found")
+                    @OpenApiResponse(status = "400", description = "Malformed range, entry predicate or cursor, or cursor of a different query"),
+                    @OpenApiResponse(status = "404", description = "Internal id not found"),
+                    @OpenApiResponse(status = "410", description = "Cursor of outdated cached versions, restart from the first page"),
+                    @OpenApiResponse(status = "503", description = "Cache is warming up, retry after the time given in the Retry-After header")
             }
     )
     private final ReposiliteRoute<Void> serviceAccess = new ReposiliteRoute<>(SERVICE_ID_PATH_REPOSILITE, new Route[]{Route.HEAD, Route.GET}, context -> {
-        serviceAccessHandler(context);
+        timed(SERVICE_ID_PATH, context, this::serviceAccessHandler);
         return Unit.INSTANCE;
     });
 
@@ -71,7 +90,8 @@ public class RestfulRoutes extends MavenRoutes implements RestfulDefinitions {
             methods = HttpMethod.GET,
             tags = "PomMapper",
             summary = "Returns all versions with their downloadable jars by their gav.",
-            description = "Not using the accessor can cause delay if the versions have not been cached.",
+            description = "Redirects to the id service of the configured artifact with the given gav, keeping all query parameters. "
+                    + "If the setting directRouteRedirect is disabled, the response of the id service is returned directly instead.",
             pathParams = {
                     @OpenApiParam(name = "repository", description = "Destination repository", required = true),
                     @OpenApiParam(name = "gav", description = "Artifact path qualifier", required = true, allowEmptyValue = true)
@@ -80,16 +100,150 @@ public class RestfulRoutes extends MavenRoutes implements RestfulDefinitions {
                     @OpenApiParam(name = SERVICE_REPOSITORY_QPARAM_NAME_SNAPSHOT, description = "Whether snapshot versions are listed." + SERVICE_REPOSITORY_QPARAM_DEFAULT_SNAPSHOT + " by default.", example = "false", type = Boolean.class),
                     @OpenApiParam(name = SERVICE_REPOSITORY_QPARAM_NAME_RELEASE, description = "Whether release versions are listed. " + SERVICE_REPOSITORY_QPARAM_DEFAULT_RELEASE + " by default.", example = "false", type = Boolean.class),
                     @OpenApiParam(name = SERVICE_REPOSITORY_QPARAM_NAME_LIMIT_VERSIONS, description = "The maximum amount of elements per group to return. " + SERVICE_REPOSITORY_QPARAM_DEFAULT_LIMIT_VERSIONS + " by default.", example = "10", type = Integer.class),
-                    @OpenApiParam(name = SERVICE_REPOSITORY_QPARAM_NAME_SINCE, description = "Only return versions newer than the given version.", example = "1.2.3")
+                    @OpenApiParam(name = SERVICE_REPOSITORY_QPARAM_NAME_SINCE, description = "Only return versions newer than the given version.", example = "1.2.3"),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_RANGE, description = "Only return groups with a version in the given maven version range.", example = "[1.2,2.0)"),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_PREFIX_ENTRY + "{entry}", description = "Only return versions whose value extracted by the xPath with the given id compares to the given value, "
+                            + "using one of =, !=, >, >=, < and <= with maven's version ordering. Written as " + SERVICE_ID_QPARAM_PREFIX_ENTRY + "api>=1.20, may be repeated.", example = "1.20"),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_PAGE_SIZE, description = "The maximum amount of elements per page. The cursor of the next page is returned in the " + HEADER_NEXT_CURSOR + " header. " + SERVICE_ID_QPARAM_DEFAULT_PAGE_SIZE + " by default.", example = "100", type = Integer.class),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_CURSOR, description = "The cursor of the page to return as given in the " + HEADER_NEXT_CURSOR + " header of the previous page.")
             },
             responses = {
                     @OpenApiResponse(status = "200", description = "Valid result containing a list of all mapped versions with their jar paths", content = @OpenApiContent(from = String.class, type = ContentType.JSON)),
                     @OpenApiResponse(status = "204 ", description = "Valid result containing no entries"),
-                    @OpenApiResponse(status = "404", description = "Target not found")
+                    @OpenApiResponse(status = "307", description = "Redirect to the id service of the artifact, unless directRouteRedirect is disabled"),
+                    @OpenApiResponse(status = "400", description = "Malformed range, entry predicate or cursor, or cursor of a different query"),
+                    @OpenApiResponse(status = "404", description = "No artifact configured for the repository and gav"),
+                    @OpenApiResponse(status = "410", description = "Cursor of outdated cached versions, restart from the first page"),
+                    @OpenApiResponse(status = "503", description = "Cache is warming up, retry after the time given in the Retry-After header")
             }
     )
     private final ReposiliteRoute<Void> serviceDirect = new ReposiliteRoute<>(SERVICE_REPOSITORY_PATH_REPOSILITE, new Route[]{Route.HEAD, Route.GET}, context -> {
-        serviceDirectHandler(context);
+        timed(SERVICE_REPOSITORY_PATH, context, this::serviceDirectHandler);
+        return Unit.INSTANCE;
+    });
+
+    @OpenApi(
+            path = SERVICE_LATEST_RELEASE_PATH,
+            methods = HttpMethod.GET,
+            tags = "PomMapper",
+            summary = "Returns the newest release version with its downloadable jar by internal id.",
+            description = "Equals the first version of the first group of the id service without snapshots, but is answered without querying.",
+            pathParams = @OpenApiParam(name = "id", description = "The internal id of the artifact as defined in configuration.", required = true, example = "MyCoolArtifact"),
+            responses = {
+                    @OpenApiResponse(status = "200", description = "Valid result containing a list with the group of the newest release and the release", content = @OpenApiContent(from = String.class, type = ContentType.JSON)),
+                    @OpenApiResponse(status = "204 ", description = "Valid result containing no releases"),
+                    @OpenApiResponse(status = "404", description = "Internal id not found"),
+                    @OpenApiResponse(status = "503", description = "Cache is warming up, retry after the time given in the Retry-After header")
+            }
+    )
+    private final ReposiliteRoute<Void> serviceLatestRelease = new ReposiliteRoute<>(SERVICE_LATEST_RELEASE_PATH, new Route[]{Route.HEAD, Route.GET}, context -> {
+        timed(SERVICE_LATEST_RELEASE_PATH, context, ctx -> serviceLatestHandler(ctx, ArtifactVersionIndex::getLatestRelease));
+        return Unit.INSTANCE;
+    });
+
+    @OpenApi(
+            path = SERVICE_LATEST_SNAPSHOT_PATH,
+            methods = HttpMethod.GET,
+            tags = "PomMapper",
+            summary = "Returns the newest snapshot version with its downloadable jar by internal id.",
+            description = "Equals the first version of the first group of the id service without releases, but is answered without querying.",
+            pathParams = @OpenApiParam(name = "id", description = "The internal id of the artifact as defined in configuration.", required = true, example = "MyCoolArtifact"),
+            responses = {
+                    @OpenApiResponse(status = "200", description = "Valid result containing a list with the group of the newest snapshot and the snapshot", content = @OpenApiContent(from = String.class, type = ContentType.JSON)),
+                    @OpenApiResponse(status = "204 ", description = "Valid result containing no snapshots"),
+                    @OpenApiResponse(status = "404", description = "Internal id not found"),
+                    @OpenApiResponse(status = "503", description = "Cache is warming up, retry after the time given in the Retry-After header")
+            }
+    )
+    private final ReposiliteRoute<Void> serviceLatestSnapshot = new ReposiliteRoute<>(SERVICE_LATEST_SNAPSHOT_PATH, new Route[]{Route.HEAD, Route.GET}, context -> {
+        timed(SERVICE_LATEST_SNAPSHOT_PATH, context, ctx -> serviceLatestHandler(ctx, ArtifactVersionIndex::getLatestSnapshot));
+        return Unit.INSTANCE;
+    });
+
+    @OpenApi(
+            path = SERVICE_LATEST_GROUP_PATH,
+            methods = HttpMethod.GET,
+            tags = "PomMapper",
+            summary = "Returns the newest version of a group with its downloadable jar by internal id.",
+            description = "Equals the first version of the group in the id service, but is answered without querying.",
+            pathParams = {
+                    @OpenApiParam(name = "id", description = "The internal id of the artifact as defined in configuration.", required = true, example = "MyCoolArtifact"),
+                    @OpenApiParam(name = "group", description = "The group version.", required = true, example = "1.2.3-SNAPSHOT")
+            },
+            responses = {
+                    @OpenApiResponse(status = "200", description = "Valid result containing a list with the group and its newest version", content = @OpenApiContent(from = String.class, type = ContentType.JSON)),
+                    @OpenApiResponse(status = "204 ", description = "Valid result, the group does not exist"),
+                    @OpenApiResponse(status = "404", description = "Internal id not found"),
+                    @OpenApiResponse(status = "503", description = "Cache is warming up, retry after the time given in the Retry-After header")
+            }
+    )
+    private final ReposiliteRoute<Void> serviceLatestGroup = new ReposiliteRoute<>(SERVICE_LATEST_GROUP_PATH, new Route[]{Route.HEAD, Route.GET}, context -> {
+        timed(SERVICE_LATEST_GROUP_PATH, context, ctx -> serviceLatestHandler(ctx, index -> index.getLatest(ctx.requireParameter("group"))));
+        return Unit.INSTANCE;
+    });
+
+    @OpenApi(
+            path = SERVICE_LOOKUP_PATH,
+            methods = HttpMethod.GET,
+            tags = "PomMapper",
+            summary = "Returns all versions with their downloadable jars that extracted the given value by internal id.",
+            description = "Exact match of the value extracted by the xPath with the given id, answered from an inverted index.",
+            pathParams = {
+                    @OpenApiParam(name = "id", description = "The internal id of the artifact as defined in configuration.", required = true, example = "MyCoolArtifact"),
+                    @OpenApiParam(name = "entry", description = "The id of the xPath as defined in configuration.", required = true, example = "minecraft.version")
+            },
+            queryParams = {
+                    @OpenApiParam(name = SERVICE_LOOKUP_QPARAM_NAME_VALUE, description = "The extracted value to match exactly.", required = true, example = "1.21"),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_SNAPSHOT, description = "Whether snapshot versions are listed." + SERVICE_ID_QPARAM_DEFAULT_SNAPSHOT + " by default.", example = "false", type = Boolean.class),
+                    @OpenApiParam(name = SERVICE_ID_QPARAM_NAME_RELEASE, description = "Whether release versions are listed. " + SERVICE_ID_QPARAM_DEFAULT_RELEASE + " by default.", example = "false", type = Boolean.class)
+            },
+            responses = {
+                    @OpenApiResponse(status = "200", description = "Valid result containing a list of all matching versions with their jar paths", content = @OpenApiContent(from = String.class, type = ContentType.JSON)),
+                    @OpenApiResponse(status = "204 ", description = "Valid result containing no entries"),
+                    @OpenApiResponse(status = "400", description = "Missing value"),
+                    @OpenApiResponse(status = "404", description = "Internal id not found"),
+                    @OpenApiResponse(status = "503", description = "Cache is warming up, retry after the time given in the Retry-After header")
+            }
+    )
+    private final ReposiliteRoute<Void> serviceLookup = new ReposiliteRoute<>(SERVICE_LOOKUP_PATH, new Route[]{Route.HEAD, Route.GET}, context -> {
+        timed(SERVICE_LOOKUP_PATH, context, this::serviceLookupHandler);
+        return Unit.INSTANCE;
+    });
+
+    @OpenApi(
+            path = SERVICE_BATCH_PATH,
+            methods = HttpMethod.POST,
+            tags = "PomMapper",
+            summary = "Returns the versions of multiple internal ids at once.",
+            description = "The body lists \"ids\" queried with the shared filters \"snapshots\", \"releases\", \"limit\", \"since\", \"range\" and \"entries\", "
+                    + "and \"queries\" with their own filters overriding the shared ones. \"range\" and \"entries\" like [\"api>=1.20\"] behave like the "
+                    + "query parameters " + SERVICE_ID_QPARAM_NAME_RANGE + " and " + SERVICE_ID_QPARAM_PREFIX_ENTRY + "* of the id service, which are not accepted as query parameters here. "
+                    + "At most " + SERVICE_BATCH_MAX_QUERIES + " queries per request.",
+            requestBody = @OpenApiRequestBody(content = @OpenApiContent(from = BatchRequest.class, type = ContentType.JSON), required = true),
+            responses = {
+                    @OpenApiResponse(status = "200", description = "A list with the id, the status and the result of each query in request order, the status of each query equals the status of the id service", content = @OpenApiContent(from = String.class, type = ContentType.JSON)),
+                    @OpenApiResponse(status = "400", description = "Malformed body, no queries, queries without id, too many queries, malformed filters or filters given as query parameters")
+            }
+    )
+    private final ReposiliteRoute<Void> serviceBatch = new ReposiliteRoute<>(SERVICE_BATCH_PATH, new Route[]{Route.POST}, context -> {
+        timed(SERVICE_BATCH_PATH, context, this::serviceBatchHandler);
+        return Unit.INSTANCE;
+    });
+
+    @OpenApi(
+            path = SERVICE_METRICS_PATH,
+            methods = HttpMethod.GET,
+            tags = "PomMapper",
+            summary = "Returns the metrics of cache builds and REST API requests.",
+            description = "Counters, latency histograms and cache sizes in Prometheus text format or JSON.",
+            queryParams = @OpenApiParam(name = SERVICE_METRICS_QPARAM_NAME_FORMAT, description = "Either " + SERVICE_METRICS_FORMAT_PROMETHEUS + " or " + SERVICE_METRICS_FORMAT_JSON + ". " + SERVICE_METRICS_QPARAM_DEFAULT_FORMAT + " by default.", example = SERVICE_METRICS_FORMAT_JSON),
+            responses = {
+                    @OpenApiResponse(status = "200", description = "The current metrics", content = {@OpenApiContent(from = String.class, type = ContentType.PLAIN), @OpenApiContent(from = String.class, type = ContentType.JSON)}),
+                    @OpenApiResponse(status = "400", description = "Unknown format")
+            }
+    )
+    private final ReposiliteRoute<Void> serviceMetrics = new ReposiliteRoute<>(SERVICE_METRICS_PATH, new Route[]{Route.GET}, context -> {
+        serviceMetricsHandler(context);
         return Unit.INSTANCE;
     });
 
@@ -102,12 +256,39 @@ public class RestfulRoutes extends MavenRoutes implements RestfulDefinitions {
     public RestfulRoutes(final MavenFacade mavenFacade, final PomMapperFacade baseFacade) {
         super(mavenFacade);
         this.baseFacade = baseFacade;
+        this.responseCache = new ResponseCache(() -> baseFacade.getPlugin().getConfig().get().getResponseCacheSize());
+        baseFacade.getArtifactsVersionsCache().addChangeListener(responseCache::invalidate);
+        baseFacade.getMetrics().registerGauge("response_cache_entries", "Cached REST API responses.", responseCache::size);
+        baseFacade.getMetrics().registerGauge("response_cache_bytes", "Size of all cached REST API responses.", responseCache::bytes);
     }
 
     private void debug(final String message) {
         baseFacade.getPlugin().debug("RestAPI > " + message);
     }
 
+    private void timed(final String route, final ContextDsl<Void> context, final Consumer<ContextDsl<Void>> handler) {
+        final long start = System.nanoTime();
+        try {
+            handler.accept(context);
+        } finally {
+            baseFacade.getMetrics().recordRequest(route, context.getCtx().statusCode(), System.nanoTime() - start);
+        }
+    }
+
+    private void serviceMetricsHandler(final ContextDsl<Void> context) {
+        context.accessed(token -> {
+            final Context ctx = context.getCtx();
+            final String format = readOptionalQuery(ctx, SERVICE_METRICS_QPARAM_NAME_FORMAT, String.class, SERVICE_METRICS_QPARAM_DEFAULT_FORMAT);
+            final PomMapperMetrics metrics = baseFacade.getMetrics();
+            switch (format) {
+                case SERVICE_METRICS_FORMAT_PROMETHEUS -> ctx.status(HttpStatus.OK).contentType(CONTENT_TYPE_PROMETHEUS).result(metrics.toPrometheus());
+                case SERVICE_METRICS_FORMAT_JSON -> ctx.status(HttpStatus.OK).contentType(ContentType.APPLICATION_JSON).result(metrics.toJson().toString());
+                default -> ctx.status(HttpStatus.BAD_REQUEST).result("Unknown format \"" + format + "\".");
+            }
+            return null;
+        });
+    }
+
     private void serviceDirectHandler(final ContextDsl<Void> context) {
         context.accessed(token -> {
             requireGav(context, gav -> {
@@ -119,6 +300,11 @@ public class RestfulRoutes extends MavenRoutes implements RestfulDefinitions {
                     debug("Artifact not found for gav \"" + gav + "\" in repository \"" + repository + "\".");
                     return Unit.INSTANCE;
                 }
+                if (!baseFacade.getPlugin().getConfig().get().isDirectRouteRedirect()) {
+                    debug("Serving versions of id \"" + artifact.id() + "\" for gav \"" + gav + "\" in repository \"" + repository + "\".");
+                    serveVersions(ctx, artifact.id());
+                    return Unit.INSTANCE;
+                }
                 debug("Trying to redirect to accessor for gav \"" + gav + "\" in repository \"" + repository + "\".");
                 String query = ctx.queryString();
                 if (query == null || query.isBlank()) {
@@ -134,93 +320,288 @@ public class RestfulRoutes extends MavenRoutes implements RestfulDefinitions {
     }
 
     private void serviceAccessHandler(final ContextDsl<Void> context) {
+        context.accessed(token -> {
+            serveVersions(context.getCtx(), context.requireParameter("id"));
+            return null;
+        });
+    }
+
+    private void serveVersions(final Context ctx, final String id) {
+        final ArtifactVersionIndex index = requireIndex(ctx, id);
+        if (index == null) {
+            return;
+        }
+
+        final boolean considerSnapshots = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_SNAPSHOT, Boolean.class, SERVICE_ID_QPARAM_DEFAULT_SNAPSHOT);
+        final boolean considerReleases = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_RELEASE, Boolean.class, SERVICE_ID_QPARAM_DEFAULT_RELEASE);
+        final int limit = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_LIMIT_VERSIONS, Integer.class, SERVICE_ID_QPARAM_DEFAULT_LIMIT_VERSIONS);
+        final String since = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_SINCE, String.class, SERVICE_ID_QPARAM_DEFAULT_SINCE);
+        final VersionFilter filter;
+        try {
+            filter = VersionFilter.of(ctx.queryParam(SERVICE_ID_QPARAM_NAME_RANGE), readEntryPredicates(ctx));
+        } catch (final IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).result(e.getMessage());
+            debug("Malformed filter for id \"" + id + "\" - " + e.getMessage());
+            return;
+        }
+
+        debug("Found " + index.size() + " entries for id \"" + id + "\"");
+        debug("filter with: snapshots=\"" + considerSnapshots + "\", releases=\"" + considerReleases + "\", limit=\"" + limit + "\", since=\"" + since + "\", filter=\"" + filter + "\"");
+
+        final ResponseCache.Key key = ResponseCache.Key.of(id, considerSnapshots, considerReleases, limit, since, filter);
+        final int pageSize = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_PAGE_SIZE, Integer.class, SERVICE_ID_QPARAM_DEFAULT_PAGE_SIZE);
+        final String cursor = ctx.queryParam(SERVICE_ID_QPARAM_NAME_CURSOR);
+        if (pageSize > 0 || cursor != null) {
+            servePage(ctx, index, key, pageSize > 0 ? pageSize : Integer.MAX_VALUE, cursor);
+            return;
+        }
+
+        final byte[] cached = responseCache.get(key, index);
+        if (cached != null) {
+            debug("Serving cached response for id \"" + id + "\"");
+            ctx.status(HttpStatus.OK).result(cached);
+            return;
+        }
+
+        final List<VersionGroup> groups = index.query(considerSnapshots, considerReleases, new DefaultArtifactVersion(since), limit, filter);
+        debug("Resolved " + groups.size() + " maven version groups.");
+        final byte[] body = stream(ctx, id, groups, baseFacade.getPlugin().getConfig().get().getResponseCacheMaxBytes());
+        if (body != null) {
+            responseCache.put(key, index, body);
+        }
+    }
+
+    private void servePage(final Context ctx, final ArtifactVersionIndex index, final ResponseCache.Key key, final int pageSize,
+                           @Nullable final String cursor) {
+        Position from = Position.START;
+        if (cursor != null) {
+            final PageCursor decoded;
+            try {
+                decoded = PageCursor.decode(cursor);
+            } catch (final IllegalArgumentException e) {
+                ctx.status(HttpStatus.BAD_REQUEST).result("Malformed cursor.");
+                debug("Malformed cursor for id \"" + key.id() + "\" - " + e.getMessage());
+                return;
+            }
+            if (!decoded.isValidFor(index)) {
+                ctx.status(HttpStatus.GONE).result("Cursor is outdated, the cached versions changed.");
+                debug("Outdated cursor for id \"" + key.id() + "\"");
+                return;
+            }
+            if (decoded.query() != key.hashCode()) {
+                ctx.status(HttpStatus.BAD_REQUEST).result("Cursor belongs to a different query.");
+                debug("Cursor of a different query for id \"" + key.id() + "\"");
+                return;
+            }
+            from = decoded.position();
+        }
+        final Page page = index.page(key.snapshots(), key.releases(), new DefaultArtifactVersion(key.since()), key.limit(), key.filter(), from, pageSize);
+        debug("Resolved page of " + page.groups().size() + " maven version groups.");
+        if (page.next() != null) {
+            ctx.header(HEADER_NEXT_CURSOR, new PageCursor(index.getGeneration(), key.hashCode(), page.next()).encode());
+        }
+        stream(ctx, key.id(), page.groups(), 0);
+    }
+
+    private void serviceLatestHandler(final ContextDsl<Void> context, final Function<ArtifactVersionIndex, VersionGroup> latest) {
         context.accessed(token -> {
             final Context ctx = context.getCtx();
             final String id = context.requireParameter("id");
-            final ArtifactsVersionsCache artifactsVersionsCache = baseFacade.getArtifactsVersionsCache();
-
-            if (!artifactsVersionsCache.hasEntry(id)) {
-                ctx.status(HttpStatus.NOT_FOUND);
-                debug("Artifact not found for id \"" + id + "\"");
+            final ArtifactVersionIndex index = requireIndex(ctx, id);
+            if (index == null) {
                 return null;
             }
-
-            final List<PomVersionedEntry> entries = artifactsVersionsCache.getVersions(id);
-            if (entries.isEmpty()) {
+            final VersionGroup group = latest.apply(index);
+            if (group == null) {
                 ctx.status(HttpStatus.NO_CONTENT).result("No entries found.");
-                debug("No entries found for id \"" + id + "\"");
+                debug("No latest entry found for id \"" + id + "\"");
                 return null;
             }
+            stream(ctx, id, List.of(group), 0);
+            return null;
+        });
+    }
 
+    private void serviceLookupHandler(final ContextDsl<Void> context) {
+        context.accessed(token -> {
+            final Context ctx = context.getCtx();
+            final String id = context.requireParameter("id");
+            final String entry = context.requireParameter("entry");
+            final String value = ctx.queryParam(SERVICE_LOOKUP_QPARAM_NAME_VALUE);
+            if (value == null) {
+                ctx.status(HttpStatus.BAD_REQUEST).result("Missing query parameter \"" + SERVICE_LOOKUP_QPARAM_NAME_VALUE + "\".");
+                return null;
+            }
+            final ArtifactVersionIndex index = requireIndex(ctx, id);
+            if (index == null) {
+                return null;
+            }
             final boolean considerSnapshots = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_SNAPSHOT, Boolean.class, SERVICE_ID_QPARAM_DEFAULT_SNAPSHOT);
             final boolean considerReleases = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_RELEASE, Boolean.class, SERVICE_ID_QPARAM_DEFAULT_RELEASE);
-            final int limit = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_LIMIT_VERSIONS, Integer.class, SERVICE_ID_QPARAM_DEFAULT_LIMIT_VERSIONS);
-            final String since = readOptionalQuery(ctx, SERVICE_ID_QPARAM_NAME_SINCE, String.class, SERVICE_ID_QPARAM_DEFAULT_SINCE);
-
-            debug("Found " + entries.size() + " entries for id \"" + id + "\"");
-            debug("filter with: snapshots=\"" + considerSnapshots + "\", releases=\"" + considerReleases + "\", limit=\"" + limit + "\", since=\"" + since + "\"");
+            final List<VersionGroup> groups = index.lookup(entry, value, considerSnapshots, considerReleases);
+            if (groups.isEmpty()) {
+                ctx.status(HttpStatus.NO_CONTENT).result("No entries found.");
+                debug("No entries found for id \"" + id + "\" with " + entry + "=\"" + value + "\"");
+                return null;
+            }
+            debug("Found " + groups.size() + " maven version groups for id \"" + id + "\" with " + entry + "=\"" + value + "\"");
+            stream(ctx, id, groups, 0);
+            return null;
+        });
+    }
 
-            final Predicate<PomVersionedEntry> filterTypes = version ->
-                    considerSnapshots && version.isSnapshot() || considerReleases && !version.isSnapshot();
-            final Predicate<PomVersionedEntry> filterSince = version -> version.isNewerThan(since);
+    /**
+     * Returns the index of the given id or sets the response status if the id service can not answer with entries.
+     *
+     * @param ctx the context of the request
+     * @param id  the internal id of the artifact
+     * @return the index of the id or null if the response status was set
+     */
+    @Nullable
+    private ArtifactVersionIndex requireIndex(final Context ctx, final String id) {
+        final ArtifactsVersionsCache.Snapshot snapshot = baseFacade.getArtifactsVersionsCache().getSnapshot();
+        if (isWarmingUp(snapshot, id)) {
+            ctx.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HEADER_RETRY_AFTER, String.valueOf(WARMUP_RETRY_AFTER_SECONDS))
+                    .result("Cache is warming up.");
+            debug("Cache is warming up, unavailable for id \"" + id + "\"");
+            return null;
+        }
 
-            final JsonArray result = resolve(entries, filterTypes.and(filterSince), limit);
+        if (!snapshot.indices().containsKey(id)) {
+            ctx.status(HttpStatus.NOT_FOUND);
+            debug("Artifact not found for id \"" + id + "\"");
+            return null;
+        }
 
-            ctx.status(HttpStatus.OK).result(gson.toJson(result));
+        final ArtifactVersionIndex index = snapshot.getIndex(id);
+        if (index.isEmpty()) {
+            ctx.status(HttpStatus.NO_CONTENT).result("No entries found.");
+            debug("No entries found for id \"" + id + "\"");
             return null;
-        });
+        }
+        return index;
     }
 
-    private <T> T readOptionalQuery(final Context ctx, final String param, final Class<T> result, final T defaultValue) {
-        return ctx.queryParamAsClass(param, result).getOrDefault(defaultValue);
+    @Nullable
+    private byte[] stream(final Context ctx, final String id, final List<VersionGroup> groups, final int maxCachedBytes) {
+        ctx.status(HttpStatus.OK);
+        final CappedTeeOutputStream output = new CappedTeeOutputStream(ctx.outputStream(), maxCachedBytes);
+        try {
+            serializer.write(groups, output);
+        } catch (final IOException e) {
+            debug("Streaming response for id \"" + id + "\" failed - " + e.getMessage());
+            return null;
+        }
+        return output.getCopy();
     }
 
-    private JsonArray resolve(final List<PomVersionedEntry> versions, final Predicate<PomVersionedEntry> queryParamFilter, final int limit) {
-        final Map<String, List<Map.Entry<DefaultArtifactVersion, JsonObject>>> groups = new HashMap<>();
-        extractGroups(versions, queryParamFilter).forEach(group -> groups.put(group, new ArrayList<>()));
-        versions.stream().filter(queryParamFilter).forEach(version ->
-                groups.get(version.group()).add(Map.entry(new DefaultArtifactVersion(version.maven()), buildPomEntries(version))));
+    private boolean isWarmingUp(final ArtifactsVersionsCache.Snapshot snapshot, final String id) {
+        return !baseFacade.getArtifactsVersionsCache().isWarm() && (!snapshot.indices().containsKey(id)
+                || baseFacade.getPlugin().getConfig().get().getWarmupPolicy() == WarmupPolicy.UNAVAILABLE);
+    }
 
-        debug("Resolved " + groups.size() + " maven version groups.");
+    private void serviceBatchHandler(final ContextDsl<Void> context) {
+        context.accessed(token -> {
+            final Context ctx = context.getCtx();
+            final List<BatchRequest.Query> queries;
+            try {
+                final BatchRequest request = gson.fromJson(ctx.body(), BatchRequest.class);
+                queries = request == null ? List.of() : request.resolve();
+            } catch (final JsonParseException e) {
+                ctx.status(HttpStatus.BAD_REQUEST).result("Malformed batch request.");
+                debug("Malformed batch request - " + e.getMessage());
+                return null;
+            } catch (final IllegalArgumentException e) {
+                ctx.status(HttpStatus.BAD_REQUEST).result(e.getMessage());
+                debug("Invalid batch request - " + e.getMessage());
+                return null;
+            }
+            if (queries.isEmpty() || queries.size() > SERVICE_BATCH_MAX_QUERIES || queries.stream().anyMatch(query -> query.id() == null)) {
+                ctx.status(HttpStatus.BAD_REQUEST).result("A batch request needs 1 to " + SERVICE_BATCH_MAX_QUERIES + " queries with an id.");
+                debug("Invalid batch request with " + queries.size() + " queries");
+                return null;
+            }
+            if (ctx.queryParam(SERVICE_ID_QPARAM_NAME_RANGE) != null || !readEntryPredicates(ctx).isEmpty()) {
+                ctx.status(HttpStatus.BAD_REQUEST).result("Filters of a batch request need to be given in the body.");
+                debug("Batch request with filters as query parameters");
+                return null;
+            }
+            final List<VersionFilter> filters;
+            try {
+                filters = queries.stream().map(BatchRequest.Query::filter).toList();
+            } catch (final IllegalArgumentException e) {
+                ctx.status(HttpStatus.BAD_REQUEST).result(e.getMessage());
+                debug("Malformed filter in batch request - " + e.getMessage());
+                return null;
+            }
+            debug("Batch request with " + queries.size() + " queries");
 
-        final Comparator<Map.Entry<DefaultArtifactVersion, JsonObject>> comp = Map.Entry.comparingByKey();
-        final List<Map.Entry<DefaultArtifactVersion, JsonObject>> objects = new ArrayList<>();
-        groups.forEach((tag, entries) -> {
-            final JsonObject group = new JsonObject();
-            entries.sort(comp.reversed());
-            if (limit > 0 && limit < entries.size()) {
-                entries.subList(limit, entries.size()).clear();
-            }
-            group.addProperty(RESULT_JSON_KEY_GROUP, tag);
-            group.add(RESULT_JSON_KEY_VERSIONS, entries.stream().map(Map.Entry::getValue).collect(JsonArray::new, JsonArray::add, JsonArray::addAll));
-            objects.add(Map.entry(new DefaultArtifactVersion(tag), group));
+            final ArtifactsVersionsCache.Snapshot snapshot = baseFacade.getArtifactsVersionsCache().getSnapshot();
+            ctx.status(HttpStatus.OK).contentType(ContentType.APPLICATION_JSON);
+            try {
+                final JsonWriter writer = serializer.newWriter(ctx.outputStream());
+                writer.beginArray();
+                for (int i = 0; i < queries.size(); i++) {
+                    writeBatchResult(writer, snapshot, queries.get(i), filters.get(i));
+                }
+                writer.endArray();
+                writer.flush();
+            } catch (final IOException e) {
+                debug("Streaming batch response failed - " + e.getMessage());
+            }
+            return null;
         });
-        objects.sort(comp.reversed());
+    }
 
-        final JsonArray parent = new JsonArray();
-        objects.forEach(pair -> parent.add(pair.getValue()));
-        return parent;
+    private void writeBatchResult(final JsonWriter writer, final ArtifactsVersionsCache.Snapshot snapshot, final BatchRequest.Query query,
+                                  final VersionFilter filter) throws IOException {
+        final ArtifactVersionIndex index = snapshot.getIndex(query.id());
+        final HttpStatus status;
+        if (isWarmingUp(snapshot, query.id())) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+        } else if (!snapshot.indices().containsKey(query.id())) {
+            status = HttpStatus.NOT_FOUND;
+        } else if (index.isEmpty()) {
+            status = HttpStatus.NO_CONTENT;
+        } else {
+            status = HttpStatus.OK;
+        }
+        writer.beginObject();
+        writer.name(RESULT_JSON_KEY_ID).value(query.id());
+        writer.name(RESULT_JSON_KEY_STATUS).value(status.getCode());
+        if (status == HttpStatus.OK) {
+            writer.name(RESULT_JSON_KEY_RESULT);
+            serializer.write(writer, index.query(query.snapshots(), query.releases(), new DefaultArtifactVersion(query.since()), query.limit(), filter));
+        }
+        writer.endObject();
     }
 
-    private List<String> extractGroups(final List<PomVersionedEntry> versions, final Predicate<PomVersionedEntry> queryParamFilter) {
-        return versions.stream()
-                .filter(queryParamFilter)
-                .map(PomVersionedEntry::group)
-                .toList();
+    /**
+     * Reads the entry predicates of the query parameters.
+     * The operator of a predicate like {@code entry.api>=1.20} is split into the parameter name and value,
+     * so the expression is reassembled from both.
+     *
+     * @param ctx the context of the request
+     * @return the predicate expressions without prefix
+     */
+    private List<String> readEntryPredicates(final Context ctx) {
+        final List<String> expressions = new ArrayList<>();
+        ctx.queryParamMap().forEach((name, values) -> {
+            if (name.startsWith(SERVICE_ID_QPARAM_PREFIX_ENTRY)) {
+                final String expression = name.substring(SERVICE_ID_QPARAM_PREFIX_ENTRY.length());
+                values.forEach(value -> expressions.add(value.isEmpty() ? expression : expression + "=" + value));
+            }
+        });
+        return expressions;
     }
 
-    private JsonObject buildPomEntries(final PomVersionedEntry entry) {
-        final JsonObject parent = new JsonObject();
-        final JsonObject pomVersions = new JsonObject();
-        entry.pom().forEach(pomVersions::addProperty);
-        parent.addProperty(RESULT_JSON_KEY_MVN_VERSION, entry.maven());
-        parent.addProperty(RESULT_JSON_KEY_JAR_PATH, entry.jarLocation().toString());
-        parent.add(RESULT_JSON_KEY_ENTRIES, pomVersions);
-        return parent;
+    private <T> T readOptionalQuery(final Context ctx, final String param, final Class<T> result, final T defaultValue) {
+        return ctx.queryParamAsClass(param, result).getOrDefault(defaultValue);
     }
 
     @Override
     public Set<ReposiliteRoute<?>> getRoutes() {
-        return Set.of(serviceDirect, serviceAccess);
+        return Set.of(serviceDirect, serviceAccess, serviceLatestRelease, serviceLatestSnapshot, serviceLatestGroup, serviceLookup, serviceBatch, serviceMetrics);
     }
 }
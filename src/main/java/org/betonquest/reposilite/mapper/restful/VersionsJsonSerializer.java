@@ -0,0 +1,111 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import com.google.gson.stream.JsonWriter;
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex.VersionGroup;
+import org.betonquest.reposilite.mapper.integration.PomVersionedEntry;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes the {@link VersionGroup}s of a query to the JSON response of the REST API.
+ * The entries are streamed in the order of the index, no intermediate JSON tree is built.
+ */
+public class VersionsJsonSerializer implements RestfulDefinitions {
+
+    /**
+     * The size of the buffer between the {@link JsonWriter} and the output stream.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Creates a new serializer.
+     */
+    public VersionsJsonSerializer() {
+        // Empty
+    }
+
+    /**
+     * Serializes the given version groups to the UTF-8 encoded JSON response.
+     *
+     * @param groups the version groups to serialize
+     * @return the JSON response
+     */
+    public byte[] serialize(final List<VersionGroup> groups) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            write(groups, output);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Streams the given version groups as UTF-8 encoded JSON response to the given output.
+     * The output is flushed but not closed.
+     *
+     * @param groups the version groups to serialize
+     * @param output the output to write to
+     * @throws IOException if the output could not be written
+     */
+    public void write(final List<VersionGroup> groups, final OutputStream output) throws IOException {
+        final JsonWriter writer = newWriter(output);
+        write(writer, groups);
+        writer.flush();
+    }
+
+    /**
+     * Creates a buffered {@link JsonWriter} writing UTF-8 encoded JSON to the given output.
+     * The writer needs to be flushed after writing.
+     *
+     * @param output the output to write to
+     * @return the writer
+     */
+    public JsonWriter newWriter(final OutputStream output) {
+        return new JsonWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE));
+    }
+
+    /**
+     * Writes the given version groups as JSON array with the given writer.
+     *
+     * @param writer the writer to write with
+     * @param groups the version groups to serialize
+     * @throws IOException if the output could not be written
+     */
+    public void write(final JsonWriter writer, final List<VersionGroup> groups) throws IOException {
+        writer.beginArray();
+        for (final VersionGroup versionGroup : groups) {
+            writer.beginObject();
+            writer.name(RESULT_JSON_KEY_GROUP).value(versionGroup.group());
+            writer.name(RESULT_JSON_KEY_VERSIONS).beginArray();
+            for (final PomVersionedEntry entry : versionGroup.entries()) {
+                writeEntry(writer, entry);
+            }
+            writer.endArray();
+            writer.endObject();
+        }
+        writer.endArray();
+    }
+
+    private void writeEntry(final JsonWriter writer, final PomVersionedEntry entry) throws IOException {
+        writer.beginObject();
+        writer.name(RESULT_JSON_KEY_MVN_VERSION).value(entry.maven());
+        writer.name(RESULT_JSON_KEY_JAR_PATH).value(entry.jarLocation().toString());
+        writer.name(RESULT_JSON_KEY_ENTRIES).beginObject();
+        for (final Map.Entry<String, String> pomVersion : entry.pom().entrySet()) {
+            if (pomVersion.getValue() != null) {
+                writer.name(pomVersion.getKey()).value(pomVersion.getValue());
+            }
+        }
+        writer.endObject();
+        writer.endObject();
+    }
+}
@@ -17,11 +17,12 @@ import java.util.regex.Pattern;
  * Artifact to be used in {@link com.reposilite.configuration.shared.api.SharedSettings}.
  * Represents an artifact as defined in the settings of reposilite.
  *
- * @param id           The ID of the entry
- * @param repository   The repository the artifact is sourced from
- * @param groupId      The groupId of the artifact
- * @param artifactId   The ID of the artifact
- * @param versionXPath The xpath leading to an artifact version in pom.xml
+ * @param id                The ID of the entry
+ * @param repository        The repository the artifact is sourced from
+ * @param groupId           The groupId of the artifact
+ * @param artifactId        The ID of the artifact
+ * @param versionXPath      The xpath leading to an artifact version in pom.xml
+ * @param snapshotRetention The number of latest timestamped builds per snapshot version to list, all if 0 or less
  */
 @SuppressWarnings("PMD.ShortVariable")
 @Doc(title = "Artifact", description = "An artifact to be considered for listing requests")
@@ -30,7 +31,8 @@ public record Artifact(
         @Doc(title = "Repository", description = "The repository the artifact is sourced from") String repository,
         @Doc(title = "GroupId", description = "The groupId of the artifact") String groupId,
         @Doc(title = "ArtifactId", description = "The Id of the artifact") String artifactId,
-        @Doc(title = "xPaths", description = "The xpaths leading to an artifact version in pom.xml") List<XPathEntry> versionXPath) {
+        @Doc(title = "xPaths", description = "The xpaths leading to an artifact version in pom.xml") List<XPathEntry> versionXPath,
+        @Doc(title = "Snapshot Retention", description = "The number of latest timestamped builds per snapshot version to list, all builds if 0 or less") int snapshotRetention) {
 
     /**
      * Regex for artifactId to check naming conventions as defined by Apache Maven.
@@ -102,6 +104,20 @@ public record Artifact(
         return new ValidationResult("Entry \"" + id() + "\"" + (error ? " has issues:" : "'s artifact can be found and accessed."), error ? ValidationType.ERROR : ValidationType.SUCCESS, errors);
     }
 
+    /**
+     * Checks if all xPaths of the artifact can be compiled.
+     *
+     * @param facade the facade holding the compiled xPaths
+     * @return the validation result
+     */
+    public ValidationResult validateXPaths(final PomMapperFacade facade) {
+        final List<String> errors = facade.getXPaths(this).getErrors();
+        if (!errors.isEmpty()) {
+            return new ValidationResult("\"" + id() + "\": Invalid xPaths for entry.", ValidationType.ERROR, errors);
+        }
+        return new ValidationResult("\"" + id() + "\"'s xPaths are valid.", ValidationType.SUCCESS, new ArrayList<>());
+    }
+
     /**
      * Checks if the artifact's naming conventions are valid.
      *
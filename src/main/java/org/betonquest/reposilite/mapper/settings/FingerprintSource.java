@@ -0,0 +1,17 @@
+package org.betonquest.reposilite.mapper.settings;
+
+/**
+ * Defines how unchanged poms are recognized during cache generation without reading them.
+ */
+public enum FingerprintSource {
+
+    /**
+     * Uses the checksum of the pom's .sha1 file.
+     * Falls back to {@link #MODIFIED} if the pom has no .sha1 file.
+     */
+    CHECKSUM,
+    /**
+     * Uses the last modification time and the size of the pom.
+     */
+    MODIFIED
+}
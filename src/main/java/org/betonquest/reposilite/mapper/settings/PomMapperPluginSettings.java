@@ -47,6 +47,104 @@ public final class PomMapperPluginSettings implements SharedSettings, Validatabl
      */
     /*default*/ ValidationLogLevel validationLogLevel = ValidationLogLevel.ALL;
 
+    /**
+     * See {@link #getResponseCacheSize()}.
+     *
+     * @see #getResponseCacheSize()
+     */
+    /*default*/ int responseCacheSize = 256;
+
+    /**
+     * See {@link #getResponseCacheMaxBytes()}.
+     *
+     * @see #getResponseCacheMaxBytes()
+     */
+    /*default*/ int responseCacheMaxBytes = 1024 * 1024;
+
+    /**
+     * See {@link #getCacheWorkerThreads()}.
+     *
+     * @see #getCacheWorkerThreads()
+     */
+    /*default*/ int cacheWorkerThreads = 4;
+
+    /**
+     * See {@link #isCacheVirtualThreads()}.
+     *
+     * @see #isCacheVirtualThreads()
+     */
+    /*default*/ boolean cacheVirtualThreads;
+
+    /**
+     * See {@link #isStreamingExtraction()}.
+     *
+     * @see #isStreamingExtraction()
+     */
+    /*default*/ boolean streamingExtraction = true;
+
+    /**
+     * See {@link #getCacheSnapshotFile()}.
+     *
+     * @see #getCacheSnapshotFile()
+     */
+    /*default*/ String cacheSnapshotFile = "pommapper-cache.bin";
+
+    /**
+     * See {@link #getRebuildQuietWindow()}.
+     *
+     * @see #getRebuildQuietWindow()
+     */
+    /*default*/ long rebuildQuietWindow = 2000;
+
+    /**
+     * See {@link #getRebuildMaxDelay()}.
+     *
+     * @see #getRebuildMaxDelay()
+     */
+    /*default*/ long rebuildMaxDelay = 30000;
+
+    /**
+     * See {@link #getReconcileInterval()}.
+     *
+     * @see #getReconcileInterval()
+     */
+    /*default*/ long reconcileInterval = 900;
+
+    /**
+     * See {@link #getReconcileStorageCallsPerSecond()}.
+     *
+     * @see #getReconcileStorageCallsPerSecond()
+     */
+    /*default*/ int reconcileStorageCallsPerSecond = 20;
+
+    /**
+     * See {@link #isDirectRouteRedirect()}.
+     *
+     * @see #isDirectRouteRedirect()
+     */
+    /*default*/ boolean directRouteRedirect = true;
+
+    /**
+     * See {@link #getWarmupPolicy()}.
+     *
+     * @see #getWarmupPolicy()
+     */
+    /*default*/ WarmupPolicy warmupPolicy = WarmupPolicy.STALE;
+
+    /**
+     * See {@link #getVersionEnumeration()}.
+     *
+     * @see #getVersionEnumeration()
+     */
+    /*default*/ VersionEnumeration versionEnumeration = VersionEnumeration.METADATA;
+
+    /**
+     * See {@link #getFingerprintSource()}.
+     *
+     * @see #getFingerprintSource()
+     */
+    /*default*/ FingerprintSource fingerprintSource = FingerprintSource.CHECKSUM;
+
     /**
      * See {@link #getArtifacts()}.
      *
@@ -69,6 +167,10 @@ public final class PomMapperPluginSettings implements SharedSettings, Validatabl
             results.add(new ValidationResult("Running syntax tests...", ValidationType.INFO, List.of()));
             artifacts.stream().map(Artifact::validateNamingConvention).forEach(results::add);
         }
+        if (getValidationLogLevel() != ValidationLogLevel.IGNORE_ALL) {
+            results.add(new ValidationResult("Running xPath tests...", ValidationType.INFO, List.of()));
+            artifacts.stream().map(artifact -> artifact.validateXPaths(facade)).forEach(results::add);
+        }
         if (isRunExistenceChecks() && getValidationLogLevel() != ValidationLogLevel.IGNORE_ALL) {
             results.add(new ValidationResult("Running semantics tests...", ValidationType.INFO, List.of()));
             artifacts.stream().map(artifact -> artifact.validateExistence(facade)).forEach(results::add);
@@ -106,6 +208,146 @@ public final class PomMapperPluginSettings implements SharedSettings, Validatabl
         return validationLogLevel;
     }
 
+    /**
+     * The maximum number of serialized REST API responses kept in memory.
+     *
+     * @return the maximum number of cached responses
+     */
+    @Doc(title = "Response Cache Size", description = "The maximum number of serialized REST API responses kept in memory. Set to 0 to disable the response cache.")
+    public int getResponseCacheSize() {
+        return responseCacheSize;
+    }
+
+    /**
+     * The maximum size of a single serialized REST API response to be kept in memory.
+     *
+     * @return the maximum size of a cached response in bytes
+     */
+    @Doc(title = "Response Cache Max Bytes", description = "The maximum size in bytes of a single REST API response kept in the response cache. Larger responses are only streamed to the client.")
+    public int getResponseCacheMaxBytes() {
+        return responseCacheMaxBytes;
+    }
+
+    /**
+     * The number of workers generating the cache of multiple artifacts concurrently.
+     *
+     * @return the number of cache workers
+     */
+    @Doc(title = "Cache Worker Threads", description = "The number of workers generating the cache of multiple artifacts concurrently.")
+    public int getCacheWorkerThreads() {
+        return cacheWorkerThreads;
+    }
+
+    /**
+     * Whether the cache workers use virtual threads instead of platform threads.
+     *
+     * @return true if virtual threads should be used, false otherwise.
+     */
+    @Doc(title = "Cache Virtual Threads", description = "Whether the cache workers use virtual threads if supported by the JVM instead of platform threads.")
+    public boolean isCacheVirtualThreads() {
+        return cacheVirtualThreads;
+    }
+
+    /**
+     * Whether poms are streamed instead of parsed into a DOM if all xPaths of an artifact are simple element paths.
+     *
+     * @return true if simple element paths should be extracted by streaming, false otherwise.
+     */
+    @Doc(title = "Streaming Extraction", description = "Extracts simple element paths like '/project/properties/foo' by streaming the pom instead of parsing it completely. Other xPaths are always evaluated on the parsed pom.")
+    public boolean isStreamingExtraction() {
+        return streamingExtraction;
+    }
+
+    /**
+     * The file the cache is persisted to, relative to the working directory of reposilite.
+     *
+     * @return the cache snapshot file or an empty string if disabled
+     */
+    @Doc(title = "Cache Snapshot File", description = "The file the cache is persisted to on shutdown and after each generation, relative to the working directory. Unchanged poms are not read again on startup. Leave empty to disable.")
+    public String getCacheSnapshotFile() {
+        return cacheSnapshotFile;
+    }
+
+    /**
+     * The time in milliseconds without further deploys or settings changes before the cache is rebuilt.
+     *
+     * @return the quiet window in milliseconds
+     */
+    @Doc(title = "Rebuild Quiet Window", description = "The time in milliseconds without further deploys or settings changes before the cache is rebuilt. Bursts of deploys are coalesced into a single update.")
+    public long getRebuildQuietWindow() {
+        return rebuildQuietWindow;
+    }
+
+    /**
+     * The maximum time in milliseconds between the first deploy or settings change and the cache rebuild.
+     *
+     * @return the maximum delay in milliseconds
+     */
+    @Doc(title = "Rebuild Max Delay", description = "The maximum time in milliseconds between the first deploy or settings change and the cache rebuild. A steady stream of deploys within the quiet window cannot postpone the rebuild for longer.")
+    public long getRebuildMaxDelay() {
+        return rebuildMaxDelay;
+    }
+
+    /**
+     * The time in seconds between background reconciliations of the cache with the storage.
+     *
+     * @return the reconcile interval in seconds or zero if disabled
+     */
+    @Doc(title = "Reconcile Interval", description = "The time in seconds between background passes that compare the poms listed in the storage with the cache and only read added poms and drop removed ones. Picks up changes made to the storage without a deploy. Set to 0 to disable.")
+    public long getReconcileInterval() {
+        return reconcileInterval;
+    }
+
+    /**
+     * The maximum number of storage calls per second of the background reconciliation.
+     *
+     * @return the maximum storage calls per second or zero if unlimited
+     */
+    @Doc(title = "Reconcile Storage Calls Per Second", description = "The maximum number of storage calls per second of the background reconciliation, so it does not compete with regular downloads. Set to 0 for no limit.")
+    public int getReconcileStorageCallsPerSecond() {
+        return reconcileStorageCallsPerSecond;
+    }
+
+    /**
+     * Whether the repository route redirects to the id route instead of serving the versions itself.
+     *
+     * @return true if the repository route redirects
+     */
+    @Doc(title = "Direct Route Redirect", description = "Whether the repository route redirects to the id route of the matching artifact. Disable to serve the versions directly, which saves clients the second request.")
+    public boolean isDirectRouteRedirect() {
+        return directRouteRedirect;
+    }
+
+    /**
+     * How the REST API behaves while the cache is generated in the background after startup.
+     *
+     * @return the warmup policy
+     */
+    @Doc(title = "Warmup Policy", description = "How the REST API behaves while the cache is generated after startup. UNAVAILABLE responds with 503, STALE serves the persisted cache snapshot and PROGRESSIVE serves each artifact as soon as it is generated.")
+    public WarmupPolicy getWarmupPolicy() {
+        return warmupPolicy;
+    }
+
+    /**
+     * How the poms of an artifact's versions are found in the storage.
+     *
+     * @return the version enumeration
+     */
+    @Doc(title = "Version Enumeration", description = "How the poms of an artifact's versions are found. METADATA reads the maven-metadata.xml and falls back to DIRECTORY if it is missing or inconsistent. DIRECTORY lists all version directories.")
+    public VersionEnumeration getVersionEnumeration() {
+        return versionEnumeration;
+    }
+
+    /**
+     * How unchanged poms are recognized during cache generation without reading them.
+     *
+     * @return the fingerprint source
+     */
+    @Doc(title = "Fingerprint Source", description = "How unchanged poms are recognized during cache generation. CHECKSUM uses the pom's .sha1 file and falls back to MODIFIED if it is missing. MODIFIED uses the last modification time and size of the pom.")
+    public FingerprintSource getFingerprintSource() {
+        return fingerprintSource;
+    }
+
     /**
      * All artifacts that are considered for listing requests.
      *
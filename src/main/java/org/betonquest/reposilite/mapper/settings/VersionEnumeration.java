@@ -0,0 +1,17 @@
+package org.betonquest.reposilite.mapper.settings;
+
+/**
+ * Defines how the poms of an artifact's versions are found in the storage.
+ */
+public enum VersionEnumeration {
+
+    /**
+     * Reads the versions from the artifact's maven-metadata.xml and only lists snapshot version directories.
+     * Falls back to {@link #DIRECTORY} if the metadata is missing or inconsistent.
+     */
+    METADATA,
+    /**
+     * Lists all version directories of the artifact and all files within them.
+     */
+    DIRECTORY
+}
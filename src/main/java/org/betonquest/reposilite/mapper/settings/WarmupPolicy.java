@@ -0,0 +1,22 @@
+package org.betonquest.reposilite.mapper.settings;
+
+/**
+ * Defines how the REST API behaves while the cache is generated in the background after startup.
+ */
+public enum WarmupPolicy {
+
+    /**
+     * Responds with 503 and a Retry-After header until the cache generation is complete.
+     */
+    UNAVAILABLE,
+    /**
+     * Serves the data of the persisted cache snapshot until the cache generation is complete.
+     * Artifacts without persisted data are responded with 503.
+     */
+    STALE,
+    /**
+     * Serves each artifact as soon as its cache is generated.
+     * Artifacts that are not generated yet are responded with 503.
+     */
+    PROGRESSIVE
+}
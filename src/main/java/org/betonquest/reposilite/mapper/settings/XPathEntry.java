@@ -2,13 +2,13 @@ package org.betonquest.reposilite.mapper.settings;
 
 import com.reposilite.configuration.shared.api.Doc;
 import com.reposilite.configuration.shared.api.Min;
-import org.w3c.dom.Document;
 
 import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 
+import java.util.regex.Pattern;
+
 /**
  * Represents an xpath entry in the settings.
  *
@@ -24,15 +24,31 @@ public record XPathEntry(
         String xpath) {
 
     /**
-     * Parses the given document and returns the value of the xpath.
+     * Pattern of simple absolute element paths like {@code /project/properties/foo.version}.
+     */
+    private static final Pattern SIMPLE_PATH = Pattern.compile("^(/[A-Za-z_][\\w.\\-]*(:[A-Za-z_][\\w.\\-]*)?)+$");
+
+    /**
+     * Checks if the xpath value is a simple absolute element path without predicates, axes or functions.
+     * Simple paths can be extracted by streaming the pom instead of evaluating the xpath on a DOM.
+     *
+     * @return true if the xpath value is a simple absolute element path, false otherwise
+     */
+    public boolean isSimplePath() {
+        return xpath() != null && SIMPLE_PATH.matcher(xpath().trim()).matches();
+    }
+
+    /**
+     * Compiles the xpath value to an expression that can be evaluated repeatedly.
      *
-     * @param document The document to parse.
-     * @param xPath    The xpath to evaluate.
-     * @return The value of the xpath.
-     * @throws XPathExpressionException If the xpath could not be evaluated.
+     * @param xPath The xpath to compile with.
+     * @return The compiled expression.
+     * @throws XPathExpressionException If the xpath could not be compiled.
      */
-    public String parse(final XPath xPath, final Document document) throws XPathExpressionException {
-        final XPathExpression xPathExpression = xPath.compile(xpath());
-        return (String) xPathExpression.evaluate(document, XPathConstants.STRING);
+    public XPathExpression compile(final XPath xPath) throws XPathExpressionException {
+        if (xpath() == null) {
+            throw new XPathExpressionException("No xpath defined");
+        }
+        return xPath.compile(xpath());
     }
 }
@@ -0,0 +1,96 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests the merging of concurrent cache changes in {@link ArtifactsVersionsCache}.
+ */
+class ArtifactsVersionsCacheTest {
+
+    /**
+     * The artifact of all test entries.
+     */
+    private static final Artifact ARTIFACT = new Artifact("test", "releases", "org.example", "example", List.of(), 0);
+
+    /**
+     * The interner of all test entries.
+     */
+    private static final EntryInterner INTERNER = new EntryInterner();
+
+    private static PomVersionedEntry entry(final String maven, final String api) {
+        return new PomVersionedEntry(ARTIFACT, "1.0", maven, Map.of("api", api), Location.of("1.0/" + maven + ".pom"), api, INTERNER);
+    }
+
+    private static List<String> versions(final ArtifactVersionIndex index) {
+        return index.getEntries().stream().map(entry -> entry.maven() + "/" + entry.pom().get("api")).sorted().toList();
+    }
+
+    @Test
+    void rebaseReturnsBuildIfIndexIsUnchanged() {
+        final ArtifactVersionIndex base = ArtifactVersionIndex.of(List.of(entry("1.0-1", "1")));
+        final ArtifactVersionIndex built = ArtifactVersionIndex.of(List.of(entry("1.0-1", "2")));
+        assertSame(built, ArtifactsVersionsCache.rebase(built, base, base));
+    }
+
+    @Test
+    void rebaseKeepsEntriesDeployedDuringBuild() {
+        final PomVersionedEntry first = entry("1.0-1", "1");
+        final ArtifactVersionIndex base = ArtifactVersionIndex.of(List.of(first));
+        final ArtifactVersionIndex built = ArtifactVersionIndex.of(List.of(first));
+        final ArtifactVersionIndex current = base.withEntry(entry("1.0-2", "1"));
+        assertEquals(List.of("1.0-1/1", "1.0-2/1"), versions(ArtifactsVersionsCache.rebase(built, base, current)));
+    }
+
+    @Test
+    void rebaseKeepsEntriesUpdatedDuringBuild() {
+        final PomVersionedEntry first = entry("1.0-1", "1");
+        final ArtifactVersionIndex base = ArtifactVersionIndex.of(List.of(first));
+        final ArtifactVersionIndex built = ArtifactVersionIndex.of(List.of(entry("1.0-1", "2")));
+        final ArtifactVersionIndex current = base.withEntry(entry("1.0-1", "3"));
+        assertEquals(List.of("1.0-1/3"), versions(ArtifactsVersionsCache.rebase(built, base, current)));
+    }
+
+    @Test
+    void rebaseKeepsChangesOfBuildForUnchangedEntries() {
+        final PomVersionedEntry first = entry("1.0-1", "1");
+        final PomVersionedEntry second = entry("1.0-2", "1");
+        final ArtifactVersionIndex base = ArtifactVersionIndex.of(List.of(first, second));
+        final ArtifactVersionIndex built = ArtifactVersionIndex.of(List.of(entry("1.0-1", "2"), second, entry("1.0-3", "1")));
+        final ArtifactVersionIndex current = base.withEntry(entry("1.0-4", "1"));
+        assertEquals(List.of("1.0-1/2", "1.0-2/1", "1.0-3/1", "1.0-4/1"), versions(ArtifactsVersionsCache.rebase(built, base, current)));
+    }
+
+    @Test
+    void rebaseDropsEntriesRemovedDuringBuild() {
+        final PomVersionedEntry first = entry("1.0-1", "1");
+        final PomVersionedEntry second = entry("1.0-2", "1");
+        final ArtifactVersionIndex base = ArtifactVersionIndex.of(List.of(first, second));
+        final ArtifactVersionIndex built = ArtifactVersionIndex.of(List.of(first, second));
+        final ArtifactVersionIndex current = ArtifactVersionIndex.of(List.of(first));
+        assertEquals(List.of("1.0-1/1"), versions(ArtifactsVersionsCache.rebase(built, base, current)));
+    }
+
+    @Test
+    void reconciledDropsOnlyEntriesUnchangedSinceListing() {
+        final PomVersionedEntry first = entry("1.0-1", "1");
+        final PomVersionedEntry second = entry("1.0-2", "1");
+        final ArtifactVersionIndex current = ArtifactVersionIndex.of(List.of(first, entry("1.0-2", "2")));
+        final Map<Location, PomVersionedEntry> removed = Map.of(first.pomLocation(), first, second.pomLocation(), second);
+        assertEquals(List.of("1.0-2/2"), versions(ArtifactsVersionsCache.reconciled(current, List.of(), removed)));
+    }
+
+    @Test
+    void reconciledKeepsEntriesDeployedDuringListing() {
+        final ArtifactVersionIndex current = ArtifactVersionIndex.of(List.of(entry("1.0-1", "2")));
+        final List<PomVersionedEntry> added = List.of(entry("1.0-1", "1"), entry("1.0-2", "1"));
+        assertEquals(List.of("1.0-1/2", "1.0-2/1"), versions(ArtifactsVersionsCache.reconciled(current, added, Map.of())));
+    }
+}
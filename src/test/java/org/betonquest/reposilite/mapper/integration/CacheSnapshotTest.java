@@ -0,0 +1,159 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.betonquest.reposilite.mapper.settings.XPathEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests writing and reading a {@link CacheSnapshot}.
+ */
+class CacheSnapshotTest {
+
+    /**
+     * The magic number of a snapshot file.
+     */
+    private static final int MAGIC = 0x504D_4D43;
+
+    /**
+     * The supported version of the file format.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The artifact of all test entries.
+     */
+    private static final Artifact ARTIFACT = new Artifact("test", "releases", "org.example", "example",
+            List.of(new XPathEntry("api", "/project/properties/api")), 0);
+
+    /**
+     * The directory to store the snapshots in.
+     */
+    @TempDir
+    /*default*/ Path directory;
+
+    private static PomVersionedEntry entry(final String maven, final Map<String, String> values, final String fingerprint) {
+        return new PomVersionedEntry(ARTIFACT, "1.0", maven, values, Location.of("1.0/" + maven + ".pom"), fingerprint, new EntryInterner());
+    }
+
+    private static Map<String, String> values(final String... keysAndValues) {
+        final Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            values.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return values;
+    }
+
+    private Path corrupt(final String artifactConfigId, final int stringLength, final int entryCount) throws IOException {
+        final Path file = directory.resolve("corrupt.bin");
+        try (DataOutputStream output = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(1);
+            final byte[] bytes = artifactConfigId.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(stringLength);
+            output.write(bytes);
+            output.writeInt(0);
+            output.writeInt(entryCount);
+        }
+        return file;
+    }
+
+    @Test
+    void readRestoresWrittenEntries() throws IOException {
+        final CacheSnapshot snapshot = new CacheSnapshot(directory.resolve("snapshot.bin"));
+        final PomVersionedEntry first = entry("1.0-1", values("zeta", "2", "api", "1.20"), "fingerprint");
+        final PomVersionedEntry second = entry("1.0-2", values(), null);
+        assertTrue(snapshot.write(Map.of(ARTIFACT.id(), ArtifactVersionIndex.of(List.of(first, second)))));
+
+        final Map<Location, PomVersionedEntry> restored = snapshot.read(List.of(ARTIFACT), new EntryInterner()).get(ARTIFACT.id());
+        assertEquals(2, restored.size());
+        final PomVersionedEntry restoredFirst = restored.get(first.pomLocation());
+        assertEquals("1.0", restoredFirst.group());
+        assertEquals("1.0-1", restoredFirst.maven());
+        assertEquals("fingerprint", restoredFirst.fingerprint());
+        assertEquals(List.of("zeta", "api"), List.copyOf(restoredFirst.pom().keySet()));
+        assertEquals("1.20", restoredFirst.pom().get("api"));
+        assertNull(restored.get(second.pomLocation()).fingerprint());
+    }
+
+    @Test
+    void writeSkipsUnchangedEntries() throws IOException {
+        final CacheSnapshot snapshot = new CacheSnapshot(directory.resolve("snapshot.bin"));
+        final PomVersionedEntry first = entry("1.0-1", values("api", "1"), "fingerprint");
+        final ArtifactVersionIndex index = ArtifactVersionIndex.of(List.of(first));
+        assertTrue(snapshot.write(Map.of(ARTIFACT.id(), index)));
+        assertFalse(snapshot.write(Map.of(ARTIFACT.id(), ArtifactVersionIndex.of(List.of(first)))));
+        assertTrue(snapshot.write(Map.of(ARTIFACT.id(), index.withEntry(entry("1.0-1", values("api", "2"), "changed")))));
+    }
+
+    @Test
+    void readOmitsArtifactsWithChangedSettings() throws IOException {
+        final CacheSnapshot snapshot = new CacheSnapshot(directory.resolve("snapshot.bin"));
+        snapshot.write(Map.of(ARTIFACT.id(), ArtifactVersionIndex.of(List.of(entry("1.0-1", values("api", "1"), "fingerprint")))));
+        final Artifact changed = new Artifact(ARTIFACT.id(), ARTIFACT.repository(), ARTIFACT.groupId(), ARTIFACT.artifactId(), List.of(), 0);
+        assertEquals(Map.of(), snapshot.read(List.of(changed), new EntryInterner()));
+    }
+
+    @Test
+    void readIgnoresMissingFile() throws IOException {
+        assertEquals(Map.of(), new CacheSnapshot(directory.resolve("missing.bin")).read(List.of(ARTIFACT), new EntryInterner()));
+    }
+
+    @Test
+    void readIgnoresUnknownFormat() throws IOException {
+        final Path file = directory.resolve("unknown.bin");
+        try (DataOutputStream output = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION + 1);
+        }
+        assertEquals(Map.of(), new CacheSnapshot(file).read(List.of(ARTIFACT), new EntryInterner()));
+    }
+
+    @Test
+    void readRejectsNegativeStringLength() throws IOException {
+        final CacheSnapshot snapshot = new CacheSnapshot(corrupt("test", -1, 0));
+        assertThrows(IOException.class, () -> snapshot.read(List.of(ARTIFACT), new EntryInterner()));
+    }
+
+    @Test
+    void readRejectsHugeStringLength() throws IOException {
+        final CacheSnapshot snapshot = new CacheSnapshot(corrupt("test", Integer.MAX_VALUE, 0));
+        assertThrows(IOException.class, () -> snapshot.read(List.of(ARTIFACT), new EntryInterner()));
+    }
+
+    @Test
+    void readRejectsStringLongerThanRemainingInput() throws IOException {
+        final CacheSnapshot snapshot = new CacheSnapshot(corrupt("test", 1000, 0));
+        assertThrows(IOException.class, () -> snapshot.read(List.of(ARTIFACT), new EntryInterner()));
+    }
+
+    @Test
+    void readRejectsNegativeEntryCount() throws IOException {
+        final CacheSnapshot snapshot = new CacheSnapshot(corrupt("test", 4, -1));
+        assertThrows(IOException.class, () -> snapshot.read(List.of(ARTIFACT), new EntryInterner()));
+    }
+
+    @Test
+    void readRejectsTruncatedEntries() throws IOException {
+        final CacheSnapshot snapshot = new CacheSnapshot(corrupt("test", 4, 5));
+        assertThrows(IOException.class, () -> snapshot.read(List.of(ARTIFACT), new EntryInterner()));
+    }
+}
@@ -0,0 +1,82 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.betonquest.reposilite.mapper.settings.Artifact;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the timing of a {@link RebuildScheduler}.
+ */
+class RebuildSchedulerTest {
+
+    /**
+     * The artifact of all test updates.
+     */
+    private static final Artifact ARTIFACT = new Artifact("test", "releases", "org.example", "example", List.of(), 0);
+
+    @Test
+    void triggersWithinQuietWindowAreCoalesced() throws InterruptedException {
+        final AtomicInteger rebuilds = new AtomicInteger();
+        final RebuildScheduler scheduler = new RebuildScheduler(() -> 200, () -> 10_000, rebuilds::incrementAndGet, (artifact, poms) -> {
+        });
+        try {
+            for (int i = 0; i < 5; i++) {
+                scheduler.scheduleFullRebuild();
+                Thread.sleep(20);
+            }
+            assertEquals(0, rebuilds.get(), "rebuild ran within the quiet window");
+            Thread.sleep(600);
+            assertEquals(1, rebuilds.get());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void steadyTriggersCannotPostponeBeyondMaxDelay() throws InterruptedException {
+        final AtomicInteger rebuilds = new AtomicInteger();
+        final RebuildScheduler scheduler = new RebuildScheduler(() -> 200, () -> 300, rebuilds::incrementAndGet, (artifact, poms) -> {
+        });
+        try {
+            final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1500);
+            while (System.nanoTime() < end) {
+                scheduler.scheduleFullRebuild();
+                Thread.sleep(50);
+            }
+            assertTrue(rebuilds.get() >= 2, "only " + rebuilds.get() + " rebuilds while triggered steadily");
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void pomUpdatesOfArtifactAreBatched() throws InterruptedException {
+        final List<Set<Location>> updates = new CopyOnWriteArrayList<>();
+        final CountDownLatch updated = new CountDownLatch(1);
+        final RebuildScheduler scheduler = new RebuildScheduler(() -> 100, () -> 10_000, () -> {
+        }, (artifact, poms) -> {
+            updates.add(Set.copyOf(poms));
+            updated.countDown();
+        });
+        try {
+            scheduler.schedulePomUpdate(ARTIFACT, Location.of("1.0/a.pom"));
+            scheduler.schedulePomUpdate(ARTIFACT, Location.of("1.0/b.pom"));
+            scheduler.schedulePomUpdate(ARTIFACT, Location.of("1.0/a.pom"));
+            assertTrue(updated.await(2, TimeUnit.SECONDS), "update did not run");
+            Thread.sleep(200);
+            assertEquals(List.of(Set.of(Location.of("1.0/a.pom"), Location.of("1.0/b.pom"))), updates);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
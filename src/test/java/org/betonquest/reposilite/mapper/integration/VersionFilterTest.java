@@ -0,0 +1,91 @@
+package org.betonquest.reposilite.mapper.integration;
+
+import com.reposilite.storage.api.Location;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex.VersionGroup;
+import org.betonquest.reposilite.mapper.integration.VersionFilter.EntryPredicate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests parsing and matching a {@link VersionFilter}.
+ */
+class VersionFilterTest {
+
+    /**
+     * The interner of all test entries.
+     */
+    private static final EntryInterner INTERNER = new EntryInterner();
+
+    private static PomVersionedEntry entry(final Map<String, String> values) {
+        return new PomVersionedEntry(null, "1.0", "1.0", values, Location.of("1.0/1.0.pom"), null, INTERNER);
+    }
+
+    private static VersionGroup group(final String version) {
+        return new VersionGroup(version, new DefaultArtifactVersion(version), List.of());
+    }
+
+    @Test
+    void ofWithoutRangeAndPredicatesIsNone() {
+        assertSame(VersionFilter.NONE, VersionFilter.of(null, List.of()));
+        assertSame(VersionFilter.NONE, VersionFilter.of(" ", List.of()));
+    }
+
+    @Test
+    void ofParsesRange() {
+        final VersionFilter filter = VersionFilter.of(" [1.2,1.6) ", List.of());
+        assertTrue(filter.matches(group("1.2")));
+        assertTrue(filter.matches(group("1.5.9")));
+        assertFalse(filter.matches(group("1.6")));
+        assertFalse(filter.matches(group("1.1")));
+    }
+
+    @Test
+    void ofRejectsMalformedRange() {
+        assertThrows(IllegalArgumentException.class, () -> VersionFilter.of("[1.2", List.of()));
+        assertThrows(IllegalArgumentException.class, () -> VersionFilter.of("[1.6,1.2]", List.of()));
+    }
+
+    @Test
+    void parseMatchesTwoCharacterOperatorsFirst() {
+        assertEquals(new EntryPredicate("api", ">=", new ComparableVersion("1.20")), EntryPredicate.parse(" api >= 1.20 "));
+        assertEquals(new EntryPredicate("api", "<=", new ComparableVersion("1.20")), EntryPredicate.parse("api<=1.20"));
+        assertEquals(new EntryPredicate("api", "!=", new ComparableVersion("1.20")), EntryPredicate.parse("api!=1.20"));
+        assertEquals(new EntryPredicate("api", ">", new ComparableVersion("1.20")), EntryPredicate.parse("api>1.20"));
+    }
+
+    @Test
+    void parseRejectsMalformedPredicates() {
+        assertThrows(IllegalArgumentException.class, () -> EntryPredicate.parse("api"));
+        assertThrows(IllegalArgumentException.class, () -> EntryPredicate.parse(">=1.20"));
+        assertThrows(IllegalArgumentException.class, () -> EntryPredicate.parse("api>="));
+        assertThrows(IllegalArgumentException.class, () -> EntryPredicate.parse(" "));
+    }
+
+    @Test
+    void ofIgnoresOrderOfPredicates() {
+        assertEquals(VersionFilter.of(null, List.of("api>1", "api<=1.2")), VersionFilter.of(null, List.of("api<=1.2", "api>1")));
+    }
+
+    @Test
+    void matchesComparesValuesAsVersions() {
+        final VersionFilter filter = VersionFilter.of(null, List.of("api>=1.9", "api!=1.20"));
+        assertTrue(filter.matches(entry(Map.of("api", "1.10"))));
+        assertFalse(filter.matches(entry(Map.of("api", "1.8"))));
+        assertFalse(filter.matches(entry(Map.of("api", "1.20"))));
+    }
+
+    @Test
+    void matchesNoEntryWithoutValue() {
+        assertFalse(VersionFilter.of(null, List.of("api!=1.20")).matches(entry(Map.of("other", "1.10"))));
+    }
+}
@@ -0,0 +1,62 @@
+package org.betonquest.reposilite.mapper.restful;
+
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex;
+import org.betonquest.reposilite.mapper.integration.ArtifactVersionIndex.Position;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests encoding and decoding a {@link PageCursor}.
+ */
+class PageCursorTest {
+
+    private static String encode(final long generation, final int query, final int... position) {
+        final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + (1 + position.length) * Integer.BYTES)
+                .putLong(generation)
+                .putInt(query);
+        for (final int value : position) {
+            buffer.putInt(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    @Test
+    void decodeRestoresEncodedCursor() {
+        final PageCursor cursor = new PageCursor(-42L, 17, new Position(3, 8, 5));
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decodeRejectsMalformedBase64() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor!"));
+    }
+
+    @Test
+    void decodeRejectsWrongLength() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode(1, 2, 3, 4)));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode(1, 2, 3, 4, 5, 6)));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(""));
+    }
+
+    @Test
+    void decodeRejectsNegativePosition() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode(1, 2, -1, 0, 0)));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode(1, 2, 0, -1, 0)));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode(1, 2, 0, 0, -1)));
+    }
+
+    @Test
+    void isValidForIndexOfSameGeneration() {
+        final ArtifactVersionIndex index = ArtifactVersionIndex.of(List.of());
+        assertTrue(new PageCursor(index.getGeneration(), 0, Position.START).isValidFor(index));
+        assertFalse(new PageCursor(index.getGeneration(), 0, Position.START).isValidFor(ArtifactVersionIndex.of(List.of())));
+    }
+}